@@ -0,0 +1,55 @@
+package coldsrc.coldlib.util.bench;
+
+import coldsrc.coldlib.util.Assembly;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Assembly#build(Object)} with
+ * varying amounts of transformers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AssemblyBenchmark {
+
+    /** The instance being assembled. */
+    public static class Target {
+        public int counter;
+    }
+
+    @Param({ "0", "1", "4", "16", "64" })
+    public int transformers;
+
+    Assembly<Target, Target, Integer> assembly;
+
+    @Setup
+    public void setup() {
+        Assembly.Builder<Target, Target, Integer> builder = Assembly.builder(Target.class, Target.class, Integer.class)
+                .setInstanceFactory(options -> new Target())
+                .setDefaultOptions(1);
+        for (int i = 0; i < transformers; i++) {
+            if ((i & 1) == 0)
+                builder.addIntermediateConsumer((t, options) -> t.counter += options);
+            else
+                builder.addResultConsumer((t, options) -> t.counter += options);
+        }
+
+        assembly = builder.build();
+    }
+
+    @Benchmark
+    public Target buildDefault() {
+        return assembly.build();
+    }
+
+    @Benchmark
+    public Target buildWithOptions() {
+        return assembly.build(2);
+    }
+
+}
@@ -0,0 +1,56 @@
+package coldsrc.coldlib.util.bench;
+
+import coldsrc.coldlib.util.logic.BitFlag;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link BitFlag} mask operations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BitFlagBenchmark {
+
+    BitFlag flag = BitFlag.at(5);
+    BitFlag all = BitFlag.all();
+    BitSet bitSet = new BitSet(64);
+    int intMask;
+    long longMask;
+    boolean value;
+
+    @Benchmark
+    public long getBitMask() {
+        return flag.getBitMask();
+    }
+
+    @Benchmark
+    public int setInt() {
+        value = !value;
+        return intMask = flag.set(intMask, value);
+    }
+
+    @Benchmark
+    public long setLong() {
+        value = !value;
+        return longMask = flag.set(longMask, value);
+    }
+
+    @Benchmark
+    public BitSet setBitSet() {
+        value = !value;
+        return flag.set(bitSet, value);
+    }
+
+    @Benchmark
+    public BitSet setAllBitSet() {
+        value = !value;
+        return all.set(bitSet, value);
+    }
+
+}
@@ -0,0 +1,68 @@
+package coldsrc.coldlib.util.bench;
+
+import coldsrc.coldlib.util.functional.Callback;
+import coldsrc.coldlib.util.functional.HandlerResult;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks dispatching {@link Callback}s
+ * to varying amounts of handlers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CallbackBenchmark {
+
+    @Param({ "1", "10", "100" })
+    public int handlers;
+
+    Callback<Object> mono;
+    Callback<Object> multi;
+    Callback<Object> concurrent;
+    Object value = new Object();
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        mono = Callback.mono();
+        mono.then(v -> {
+            blackhole.consume(v);
+            return HandlerResult.KEEP;
+        });
+
+        multi = Callback.multi();
+        for (int i = 0; i < handlers; i++)
+            multi.then(v -> {
+                blackhole.consume(v);
+                return HandlerResult.KEEP;
+            });
+
+        concurrent = Callback.concurrent();
+        for (int i = 0; i < handlers; i++)
+            concurrent.then(v -> {
+                blackhole.consume(v);
+                return HandlerResult.KEEP;
+            });
+    }
+
+    @Benchmark
+    public void mono() {
+        mono.call(value);
+    }
+
+    @Benchmark
+    public void multi() {
+        multi.call(value);
+    }
+
+    @Benchmark
+    public void concurrent() {
+        concurrent.call(value);
+    }
+
+}
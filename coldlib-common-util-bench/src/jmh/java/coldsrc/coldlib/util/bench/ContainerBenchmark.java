@@ -0,0 +1,130 @@
+package coldsrc.coldlib.util.bench;
+
+import coldsrc.coldlib.util.Container;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Benchmarks the get, set and await paths
+ * of the {@link Container} factories.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContainerBenchmark {
+
+    /**
+     * Create a container of the provided kind
+     * with a value already set.
+     */
+    static Container<Object> create(String kind, Object value) {
+        return switch (kind) {
+            case "finalImmutable"  -> Container.finalImmutable(value);
+            case "futureImmutable" -> Container.futureImmutable().set(value);
+            case "mutable"         -> Container.mutable(value);
+            case "atomic"          -> Container.atomic(value);
+            case "lazy"            -> Container.lazy(() -> value);
+            case "lazyPublication" -> Container.lazy(Container.LazyMode.PUBLICATION, () -> value);
+            case "lazyNone"        -> Container.lazy(Container.LazyMode.NONE, () -> value);
+            case "mapped"          -> Container.mapped(Container.mutable(value), Function.identity());
+            case "biMapped"        -> Container.biMapped(Container.mutable(value), Function.identity(), Function.identity());
+            case "computed"        -> Container.computed(Container.mutable(value), Function.identity());
+            case "awaitable"       -> Container.awaitable(Container.mutable(value));
+            case "expiring"        -> Container.expiring(() -> value, Duration.ofHours(1));
+            case "soft"            -> Container.soft(() -> value);
+            case "threadLocal"     -> Container.threadLocal(() -> value);
+            case "protected"       -> Container.protectByClass(Container.mutable(value), c -> true, true);
+            case "forking"         -> Container.forking(Container.mutable(value), (c, v) -> Container.mutable(v));
+            default -> throw new IllegalArgumentException("Unknown container kind " + kind);
+        };
+    }
+
+    @State(Scope.Benchmark)
+    public static class ReadState {
+
+        @Param({ "finalImmutable", "futureImmutable", "mutable", "atomic",
+                 "lazy", "lazyPublication", "lazyNone", "mapped", "biMapped",
+                 "computed", "awaitable", "expiring", "soft", "threadLocal",
+                 "protected", "forking" })
+        public String kind;
+
+        public Container<Object> container;
+
+        @Setup
+        public void setup() {
+            container = create(kind, new Object());
+            container.get(); // initialize lazy values
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class WriteState {
+
+        @Param({ "mutable", "atomic", "biMapped", "awaitable",
+                 "expiring", "soft", "threadLocal", "protected", "forking" })
+        public String kind;
+
+        public Container<Object> container;
+        public Object a = new Object();
+        public Object b = new Object();
+        public boolean flip;
+
+        @Setup
+        public void setup() {
+            container = create(kind, a);
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class AwaitState {
+
+        @Param({ "finalImmutable", "mutable", "awaitable" })
+        public String kind;
+
+        public Container<Object> container;
+
+        @Setup
+        public void setup() {
+            container = create(kind, new Object());
+        }
+
+    }
+
+    @Benchmark
+    public Object get(ReadState state) {
+        return state.container.get();
+    }
+
+    @Benchmark
+    public boolean isSet(ReadState state) {
+        return state.container.isSet();
+    }
+
+    @Benchmark
+    public Object set(WriteState state) {
+        state.flip = !state.flip;
+        return state.container.set(state.flip ? state.a : state.b);
+    }
+
+    @Benchmark
+    public CompletableFuture<Object> awaitSet(AwaitState state) {
+        return state.container.await(false);
+    }
+
+    @Benchmark
+    public void awaitListenAndSet(Blackhole blackhole) {
+        Container<Object> container = Container.awaitable(Container.mutable());
+        blackhole.consume(container.await(true));
+        container.set(blackhole);
+    }
+
+}
@@ -0,0 +1,50 @@
+package coldsrc.coldlib.util.bench;
+
+import coldsrc.coldlib.util.functional.ThrowingSupplier;
+import coldsrc.coldlib.util.instrument.Instrumentation;
+import coldsrc.coldlib.util.instrument.LatencyHistogram;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of {@link Instrumentation} wrappers
+ * and of recording into a shared {@link LatencyHistogram}
+ * from multiple threads. Run with instrumentation enabled.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dcoldlib.instrumentation=true")
+@Threads(4)
+@State(Scope.Benchmark)
+public class InstrumentationBenchmark {
+
+    ThrowingSupplier<Integer> plain;
+    ThrowingSupplier<Integer> instrumented;
+    LatencyHistogram histogram;
+
+    @Setup
+    public void setup() {
+        plain = () -> 42;
+        instrumented = plain.instrumented("bench");
+        histogram = new LatencyHistogram();
+    }
+
+    @Benchmark
+    public Integer plainIssue() throws Throwable {
+        return plain.issue();
+    }
+
+    @Benchmark
+    public Integer instrumentedIssue() throws Throwable {
+        return instrumented.issue();
+    }
+
+    @Benchmark
+    public void histogramRecord() {
+        histogram.record(1234);
+    }
+
+}
@@ -0,0 +1,129 @@
+package coldsrc.coldlib.util.bench;
+
+import coldsrc.coldlib.util.IntResult;
+import coldsrc.coldlib.util.Result;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks creating and unwrapping {@link Result}s.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResultBenchmark {
+
+    Object value = new Object();
+    int number = 100_000;
+    RuntimeException error = new RuntimeException("benchmark");
+
+    Result<Object> success;
+    Result<Object> failed;
+    Result<Object> failedLite;
+    Result<Object> unsetResult;
+
+    @Setup
+    public void setup() {
+        success     = Result.success(value);
+        failed      = Result.failed(error);
+        failedLite  = Result.failedLite("benchmark");
+        unsetResult = Result.unset();
+    }
+
+    @Benchmark
+    public Result<Object> success() {
+        return Result.success(value);
+    }
+
+    @Benchmark
+    public Result<Object> unset() {
+        return Result.unset();
+    }
+
+    @Benchmark
+    public Result<Object> failed() {
+        return Result.failed(error);
+    }
+
+    @Benchmark
+    public Result<Object> failedNull() {
+        return Result.failed(null);
+    }
+
+    @Benchmark
+    public Result<Object> successNull() {
+        return Result.success(null);
+    }
+
+    @Benchmark
+    public Result<Boolean> successBoolean() {
+        return Result.success(Boolean.TRUE);
+    }
+
+    @Benchmark
+    public Result<Object> failedLite() {
+        return Result.failedLite("benchmark");
+    }
+
+    @Benchmark
+    public Result<Object> failedLiteShared() {
+        return Result.failedLite();
+    }
+
+    @Benchmark
+    public Result<Object> failedNewException() {
+        return Result.failed(new IllegalStateException("benchmark"));
+    }
+
+    @Benchmark
+    public Result<Integer> boxedSuccess() {
+        return Result.success(number);
+    }
+
+    @Benchmark
+    public IntResult intSuccess() {
+        return IntResult.success(number);
+    }
+
+    @Benchmark
+    public Object unwrapSuccess() {
+        return success.unwrap();
+    }
+
+    @Benchmark
+    public Object unwrapFailed() {
+        try {
+            return failed.unwrap();
+        } catch (Result.AbsentValueException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object unwrapFailedLite() {
+        try {
+            return failedLite.unwrap();
+        } catch (Result.AbsentValueException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object unwrapUnset() {
+        try {
+            return unsetResult.unwrap();
+        } catch (Result.AbsentValueException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object orElseFailed() {
+        return failed.orElse(value);
+    }
+
+}
@@ -0,0 +1,92 @@
+package coldsrc.coldlib.util.bench;
+
+import coldsrc.coldlib.util.AtomicContainer;
+import coldsrc.coldlib.util.Container;
+import coldsrc.coldlib.util.SeqLockContainer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Compares a {@link SeqLockContainer} updated in place
+ * with an {@link AtomicContainer} holding immutable
+ * snapshots, under a read-mostly load of three readers
+ * and one writer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class SeqLockBenchmark {
+
+    /** The immutable snapshot stored by the atomic container. */
+    record Settings(int distance, long seed, double scale, String name) { }
+
+    /** Sums the fields of the snapshot without allocating. */
+    static final ToLongFunction<SeqLockContainer.View> SUM =
+            v -> v.getInt(0) + v.getLong(1) + (long) v.getDouble(2) + v.<String>getRef(0).length();
+
+    SeqLockContainer<Settings> seqLocked;
+    AtomicContainer<Settings> atomic;
+    int counter;
+
+    @Setup
+    public void setup() {
+        seqLocked = Container.seqLocked(3, 1,
+                v -> new Settings(v.getInt(0), v.getLong(1), v.getDouble(2), v.getRef(0)),
+                (w, s) -> w.setInt(0, s.distance()).setLong(1, s.seed())
+                        .setDouble(2, s.scale()).setRef(0, s.name()));
+        seqLocked.set(new Settings(8, 42L, 1.5, "world"));
+        atomic = AtomicContainer.create(new Settings(8, 42L, 1.5, "world"));
+    }
+
+    @Benchmark
+    @Group("seqLock")
+    @GroupThreads(3)
+    public long seqLockRead() {
+        return seqLocked.readLong(SUM);
+    }
+
+    @Benchmark
+    @Group("seqLock")
+    @GroupThreads(1)
+    public void seqLockWrite() {
+        final int c = ++counter;
+        seqLocked.write(w -> w.setInt(0, c).setLong(1, c * 31L).setDouble(2, c * 0.5));
+    }
+
+    @Benchmark
+    @Group("seqLockSnapshot")
+    @GroupThreads(3)
+    public Settings seqLockSnapshotRead() {
+        return seqLocked.get();
+    }
+
+    @Benchmark
+    @Group("seqLockSnapshot")
+    @GroupThreads(1)
+    public void seqLockSnapshotWrite() {
+        final int c = ++counter;
+        seqLocked.write(w -> w.setInt(0, c).setLong(1, c * 31L).setDouble(2, c * 0.5));
+    }
+
+    @Benchmark
+    @Group("atomic")
+    @GroupThreads(3)
+    public long atomicRead() {
+        Settings s = atomic.get();
+        return s.distance() + s.seed() + (long) s.scale() + s.name().length();
+    }
+
+    @Benchmark
+    @Group("atomic")
+    @GroupThreads(1)
+    public void atomicWrite() {
+        final int c = ++counter;
+        atomic.updateAndGet(s -> new Settings(c, c * 31L, c * 0.5, s.name()));
+    }
+
+}
@@ -0,0 +1,96 @@
+package coldsrc.coldlib.util.bench;
+
+import coldsrc.coldlib.util.AtomicContainer;
+import coldsrc.coldlib.util.Stm;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares transfers between pairs of balance containers
+ * run as {@link Stm} transactions with transfers serialized
+ * by a single global lock. Fewer accounts mean more conflicts,
+ * the retries of the transfers are reported as a secondary result.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class StmBenchmark {
+
+    @Param({ "2", "64", "1024" })
+    public int accounts;
+
+    AtomicContainer<Long>[] balances;
+    Stm stm;
+    final Object lock = new Object();
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        balances = (AtomicContainer<Long>[]) new AtomicContainer<?>[accounts];
+        for (int i = 0; i < accounts; i++)
+            balances[i] = AtomicContainer.create(1_000_000L);
+        stm = Stm.create();
+    }
+
+    /**
+     * Counts the transaction retries caused by conflicts.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Conflicts {
+        public long retries;
+        // the attempts of the current transaction
+        int attempts;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            retries = 0;
+        }
+    }
+
+    @Benchmark
+    public void stmTransfer(Conflicts conflicts) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        final AtomicContainer<Long> from = balances[random.nextInt(accounts)];
+        final AtomicContainer<Long> to = balances[random.nextInt(accounts)];
+        conflicts.attempts = 0;
+        stm.run(tx -> {
+            conflicts.attempts++;
+            tx.update(from, b -> b - 1);
+            tx.update(to, b -> b + 1);
+        });
+        conflicts.retries += conflicts.attempts - 1;
+    }
+
+    @Benchmark
+    public void lockedTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        AtomicContainer<Long> from = balances[random.nextInt(accounts)];
+        AtomicContainer<Long> to = balances[random.nextInt(accounts)];
+        synchronized (lock) {
+            from.set(from.get() - 1);
+            to.set(to.get() + 1);
+        }
+    }
+
+    @Benchmark
+    public long stmReadTotal() {
+        final AtomicContainer<Long> a = balances[0];
+        final AtomicContainer<Long> b = balances[accounts - 1];
+        return stm.call(tx -> tx.get(a) + tx.get(b));
+    }
+
+    @Benchmark
+    public long lockedReadTotal() {
+        synchronized (lock) {
+            return balances[0].get() + balances[accounts - 1].get();
+        }
+    }
+
+}
@@ -0,0 +1,179 @@
+package coldsrc.coldlib.util;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Utilities for creating the executors used
+ * to run background and I/O bound tasks.
+ */
+public final class AsyncExecutors {
+
+    // static utility class
+    // no instantiating
+    private AsyncExecutors() { }
+
+    /**
+     * Holder for the lazily created default executor.
+     */
+    static final class DefaultHolder {
+        static final ExecutorService EXECUTOR = newVirtualThreadExecutor("coldlib-async");
+        // the view handed out, so it can not be shut down
+        static final Executor VIEW = EXECUTOR::execute;
+    }
+
+    /**
+     * Get a view of the default executor, created on first
+     * use by {@link AsyncExecutors#newVirtualThreadExecutor(String)},
+     * which is used when no library provider is loaded.
+     *
+     * @return The default executor.
+     */
+    public static Executor defaultExecutor() {
+        return DefaultHolder.VIEW;
+    }
+
+    // the executor installed by the library provider
+    static final AtomicReference<Executor> SHARED = new AtomicReference<>();
+
+    // resolves the shared executor for every task
+    static final Executor SHARED_VIEW = task -> {
+        Executor executor = SHARED.get();
+        (executor != null ? executor : defaultExecutor()).execute(task);
+    };
+
+    /**
+     * Get the shared executor used by the asynchronous
+     * helpers and factories when none is provided. Every
+     * task is passed to the executor installed by the library
+     * provider at the time it is submitted, otherwise to the
+     * {@link AsyncExecutors#defaultExecutor()}, so objects
+     * created with it stop using the provider executor
+     * once the provider is unloaded.
+     *
+     * @return The shared executor.
+     */
+    public static Executor sharedExecutor() {
+        return SHARED_VIEW;
+    }
+
+    /**
+     * Install the provided executor as the shared executor.
+     * This is done by the library provider when loading.
+     *
+     * @param executor The executor.
+     * @return If it was installed, false if another is installed.
+     */
+    public static boolean installSharedExecutor(Executor executor) {
+        Objects.requireNonNull(executor, "Executor can not be null");
+        return SHARED.compareAndSet(null, executor);
+    }
+
+    /**
+     * Uninstall the provided executor if it is the
+     * shared executor, restoring the default one.
+     *
+     * @param executor The executor.
+     * @return If it was uninstalled.
+     */
+    public static boolean uninstallSharedExecutor(Executor executor) {
+        return SHARED.compareAndSet(executor, null);
+    }
+
+    /**
+     * Holder for the lazily created shared scheduler.
+     */
+    static final class SchedulerHolder {
+        static final ScheduledExecutorService SCHEDULER;
+
+        static {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, task -> {
+                Thread thread = new Thread(task, "coldlib-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            // dont retain cancelled timeouts
+            scheduler.setRemoveOnCancelPolicy(true);
+            SCHEDULER = scheduler;
+        }
+    }
+
+    /**
+     * Get the shared scheduler, a single daemon thread
+     * used for timeouts and delayed tasks. Scheduled tasks
+     * should only hand off work, never block. It should
+     * never be shut down.
+     *
+     * @return The scheduler.
+     */
+    public static ScheduledExecutorService scheduler() {
+        return SchedulerHolder.SCHEDULER;
+    }
+
+    /**
+     * Get if the running VM supports virtual threads.
+     *
+     * @return True/false.
+     */
+    public static boolean supportsVirtualThreads() {
+        return virtualThreadFactory("probe") != null;
+    }
+
+    /**
+     * Create a new executor which runs every task on a
+     * new virtual thread if the running VM supports them
+     * (Java 21+). Otherwise a cached pool of daemon platform
+     * threads is used, which is suited for the same blocking,
+     * I/O bound workloads.
+     *
+     * @param name The name prefix of the threads.
+     * @return The executor.
+     */
+    public static ExecutorService newVirtualThreadExecutor(String name) {
+        ThreadFactory factory = virtualThreadFactory(name);
+        if (factory != null) {
+            try {
+                Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+                return (ExecutorService) method.invoke(null, factory);
+            } catch (ReflectiveOperationException ignored) {
+                // fall back to platform threads
+            }
+        }
+
+        // cached pool of daemon threads
+        final AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, name + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Create a virtual thread factory through reflection,
+     * as this library is compiled against Java 17.
+     *
+     * @param name The name prefix of the threads.
+     * @return The factory or null if unsupported.
+     */
+    private static ThreadFactory virtualThreadFactory(String name) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+}
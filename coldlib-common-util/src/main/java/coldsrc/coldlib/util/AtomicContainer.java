@@ -0,0 +1,343 @@
+package coldsrc.coldlib.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
+
+/**
+ * A mutable, thread safe container created
+ * by {@link AtomicContainer#create()} or
+ * {@link Container#atomic()}.
+ *
+ * The value and whether it is set are stored
+ * together in one state field, which holds either
+ * the value itself (which may be null) or an unset
+ * marker, so {@link AtomicContainer#isSet()} can never
+ * disagree with {@link AtomicContainer#get()}.
+ *
+ * Like {@link java.util.concurrent.atomic.AtomicReference}
+ * the compare operations compare by identity. Read-modify-write
+ * operations on an unset container treat the current value
+ * as {@code null}, and always leave the container set.
+ *
+ * @param <V> The value type.
+ */
+public final class AtomicContainer<V> implements Container<V> {
+
+    static final VarHandle STATE;
+    static final VarHandle VERSION;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            STATE   = lookup.findVarHandle(AtomicContainer.class, "state", Object.class);
+            VERSION = lookup.findVarHandle(AtomicContainer.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** Marker for no value being set. */
+    static final Object UNSET = new Object();
+
+    /**
+     * Create a new atomic container with no value set.
+     *
+     * @param <V> The value type.
+     * @return The container.
+     */
+    public static <V> AtomicContainer<V> create() {
+        return new AtomicContainer<>(UNSET);
+    }
+
+    /**
+     * Create a new atomic container with the value pre-set.
+     *
+     * @param val The value to pre-set.
+     * @param <V> The value type.
+     * @return The container.
+     */
+    public static <V> AtomicContainer<V> create(V val) {
+        return new AtomicContainer<>(val);
+    }
+
+    /**
+     * The state word, either {@link AtomicContainer#UNSET}
+     * or the current value.
+     */
+    volatile Object state;
+
+    /**
+     * The modification count, incremented after
+     * the state is written by the volatile and atomic
+     * operations. It is separate from the state word,
+     * so a reader may briefly see a new value with the
+     * old version, but never an old value once the new
+     * version is visible.
+     */
+    volatile long version;
+
+    AtomicContainer(Object state) {
+        this.state = state;
+    }
+
+    // unwrap a state word into a value
+    @SuppressWarnings("unchecked")
+    static <V> V value(Object state) {
+        return state == UNSET ? null : (V) state;
+    }
+
+    @Override
+    public V get() {
+        return value(state);
+    }
+
+    @Override
+    public boolean isSet() {
+        return state != UNSET;
+    }
+
+    @Override
+    public Container<V> set(V val) {
+        state = val;
+        bump();
+        return this;
+    }
+
+    @Override
+    public Mutability mutability() {
+        return Mutability.MODIFY;
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    // increment the version after a write
+    private void bump() {
+        VERSION.getAndAdd(this, 1L);
+    }
+
+    // increment the version after a relaxed write,
+    // release orders the write before the increment
+    private void bumpRelease() {
+        VERSION.getAndAddRelease(this, 1L);
+    }
+
+    @Override
+    public V orElse(V def) {
+        Object s = state;
+        return s == UNSET ? def : value(s);
+    }
+
+    @Override
+    public Result<V> issue() {
+        Object s = state;
+        return s == UNSET ? Result.unset() : Result.success(value(s));
+    }
+
+    /* Atomic Operations */
+
+    /**
+     * Set the value to {@code update} if the current
+     * value is identical to {@code expect}. An unset
+     * container never matches.
+     *
+     * @param expect The expected value.
+     * @param update The new value.
+     * @return If the value was updated.
+     */
+    public boolean compareAndSet(V expect, V update) {
+        if (STATE.compareAndSet(this, expect, update)) {
+            bump();
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Set the value to {@code val} only if
+     * no value is currently set.
+     *
+     * @param val The value to set.
+     * @return If the value was set.
+     */
+    public boolean setIfUnset(V val) {
+        if (STATE.compareAndSet(this, UNSET, val)) {
+            bump();
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Atomically set the value to {@code val}
+     * and return the previous value.
+     *
+     * @param val The new value.
+     * @return The previous value or null if unset.
+     */
+    public V getAndSet(V val) {
+        Object prev = STATE.getAndSet(this, val);
+        bump();
+        return value(prev);
+    }
+
+    /**
+     * Atomically unset the value and return
+     * the previous value.
+     *
+     * @return The previous value or null if unset.
+     */
+    public V getAndUnset() {
+        Object prev = STATE.getAndSet(this, UNSET);
+        bump();
+        return value(prev);
+    }
+
+    /**
+     * Atomically update the value with the provided function.
+     *
+     * @see AtomicContainer#updateAndGet(UnaryOperator)
+     * @param function The update function.
+     * @return This.
+     */
+    @Override
+    public AtomicContainer<V> update(UnaryOperator<V> function) {
+        updateAndGet(function);
+        return this;
+    }
+
+    /**
+     * Atomically update the value with the provided
+     * function and return the new value. The function
+     * may be called multiple times under contention, so
+     * it should be free of side effects.
+     *
+     * @param function The update function.
+     * @return The updated value.
+     */
+    public V updateAndGet(UnaryOperator<V> function) {
+        Object prev;
+        V next;
+        do {
+            prev = state;
+            next = function.apply(value(prev));
+        } while (!STATE.weakCompareAndSet(this, prev, next));
+        bump();
+        return next;
+    }
+
+    /**
+     * Atomically update the value with the provided
+     * function and return the previous value.
+     *
+     * @see AtomicContainer#updateAndGet(UnaryOperator)
+     * @param function The update function.
+     * @return The previous value or null if unset.
+     */
+    public V getAndUpdate(UnaryOperator<V> function) {
+        Object prev;
+        do {
+            prev = state;
+        } while (!STATE.weakCompareAndSet(this, prev, function.apply(value(prev))));
+        bump();
+        return value(prev);
+    }
+
+    /**
+     * Atomically combine the value with {@code x}
+     * using the provided function and return the
+     * new value. The current value is passed as the
+     * first argument.
+     *
+     * @see AtomicContainer#updateAndGet(UnaryOperator)
+     * @param x The value to accumulate.
+     * @param function The accumulator function.
+     * @return The updated value.
+     */
+    public V accumulateAndGet(V x, BinaryOperator<V> function) {
+        Object prev;
+        V next;
+        do {
+            prev = state;
+            next = function.apply(value(prev), x);
+        } while (!STATE.weakCompareAndSet(this, prev, next));
+        bump();
+        return next;
+    }
+
+    /**
+     * Atomically combine the value with {@code x}
+     * using the provided function and return the
+     * previous value.
+     *
+     * @see AtomicContainer#accumulateAndGet(Object, BinaryOperator)
+     * @param x The value to accumulate.
+     * @param function The accumulator function.
+     * @return The previous value or null if unset.
+     */
+    public V getAndAccumulate(V x, BinaryOperator<V> function) {
+        Object prev;
+        do {
+            prev = state;
+        } while (!STATE.weakCompareAndSet(this, prev, function.apply(value(prev), x)));
+        bump();
+        return value(prev);
+    }
+
+    /* Access Modes */
+
+    /**
+     * Get the value with acquire semantics.
+     *
+     * @see VarHandle#getAcquire(Object...)
+     * @return The value or null if unset.
+     */
+    public V getAcquire() {
+        return value(STATE.getAcquire(this));
+    }
+
+    /**
+     * Set the value with release semantics.
+     *
+     * @see VarHandle#setRelease(Object...)
+     * @param val The value.
+     * @return This.
+     */
+    public AtomicContainer<V> setRelease(V val) {
+        STATE.setRelease(this, val);
+        bumpRelease();
+        return this;
+    }
+
+    /**
+     * Get the value in opaque mode, only
+     * guaranteeing coherence of the field.
+     *
+     * @see VarHandle#getOpaque(Object...)
+     * @return The value or null if unset.
+     */
+    public V getOpaque() {
+        return value(STATE.getOpaque(this));
+    }
+
+    /**
+     * Set the value in opaque mode, only
+     * guaranteeing coherence of the field.
+     *
+     * @see VarHandle#setOpaque(Object...)
+     * @param val The value.
+     * @return This.
+     */
+    public AtomicContainer<V> setOpaque(V val) {
+        STATE.setOpaque(this, val);
+        bumpRelease();
+        return this;
+    }
+
+}
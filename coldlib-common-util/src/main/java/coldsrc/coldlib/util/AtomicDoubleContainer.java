@@ -0,0 +1,76 @@
+package coldsrc.coldlib.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * The container created by {@link DoubleContainer#atomic()}.
+ *
+ * A primitive always holds a value, starting at zero
+ * if none is provided, so the container is always set
+ * and never has to keep a separate flag in sync.
+ *
+ * The value is stored as its raw long bits, so
+ * {@link DoubleContainer#compareAndSet(double, double)}
+ * compares the bit patterns of the values.
+ */
+final class AtomicDoubleContainer implements DoubleContainer {
+
+    static final VarHandle BITS;
+
+    static {
+        try {
+            BITS = MethodHandles.lookup().findVarHandle(AtomicDoubleContainer.class, "bits", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // the raw bits of the value
+    volatile long bits;
+
+    AtomicDoubleContainer(double value) {
+        this.bits = Double.doubleToRawLongBits(value);
+    }
+
+    @Override
+    public double getAsDouble() {
+        return Double.longBitsToDouble(bits);
+    }
+
+    @Override
+    public boolean isSet() {
+        return true;
+    }
+
+    @Override
+    public DoubleContainer setDouble(double val) {
+        bits = Double.doubleToRawLongBits(val);
+        return this;
+    }
+
+    @Override
+    public Container.Mutability mutability() {
+        return Container.Mutability.MODIFY;
+    }
+
+    @Override
+    public double addAndGet(double delta) {
+        long prev;
+        double val;
+        do {
+            prev = bits;
+            val  = Double.longBitsToDouble(prev) + delta;
+        } while (!BITS.weakCompareAndSet(this, prev, Double.doubleToRawLongBits(val)));
+
+        return val;
+    }
+
+    @Override
+    public boolean compareAndSet(double expect, double update) {
+        return BITS.compareAndSet(this,
+                Double.doubleToRawLongBits(expect),
+                Double.doubleToRawLongBits(update));
+    }
+
+}
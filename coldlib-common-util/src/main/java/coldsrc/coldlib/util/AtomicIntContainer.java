@@ -0,0 +1,63 @@
+package coldsrc.coldlib.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * The container created by {@link IntContainer#atomic()}.
+ *
+ * A primitive always holds a value, starting at zero
+ * if none is provided, so the container is always set
+ * and never has to keep a separate flag in sync.
+ */
+final class AtomicIntContainer implements IntContainer {
+
+    static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(AtomicIntContainer.class, "value", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // the value
+    volatile int value;
+
+    AtomicIntContainer(int value) {
+        this.value = value;
+    }
+
+    @Override
+    public int getAsInt() {
+        return value;
+    }
+
+    @Override
+    public boolean isSet() {
+        return true;
+    }
+
+    @Override
+    public IntContainer setInt(int val) {
+        value = val;
+        return this;
+    }
+
+    @Override
+    public Container.Mutability mutability() {
+        return Container.Mutability.MODIFY;
+    }
+
+    @Override
+    public int addAndGet(int delta) {
+        return (int) VALUE.getAndAdd(this, delta) + delta;
+    }
+
+    @Override
+    public boolean compareAndSet(int expect, int update) {
+        return VALUE.compareAndSet(this, expect, update);
+    }
+
+}
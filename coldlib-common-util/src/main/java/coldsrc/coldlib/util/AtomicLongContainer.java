@@ -0,0 +1,63 @@
+package coldsrc.coldlib.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * The container created by {@link LongContainer#atomic()}.
+ *
+ * A primitive always holds a value, starting at zero
+ * if none is provided, so the container is always set
+ * and never has to keep a separate flag in sync.
+ */
+final class AtomicLongContainer implements LongContainer {
+
+    static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(AtomicLongContainer.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // the value
+    volatile long value;
+
+    AtomicLongContainer(long value) {
+        this.value = value;
+    }
+
+    @Override
+    public long getAsLong() {
+        return value;
+    }
+
+    @Override
+    public boolean isSet() {
+        return true;
+    }
+
+    @Override
+    public LongContainer setLong(long val) {
+        value = val;
+        return this;
+    }
+
+    @Override
+    public Container.Mutability mutability() {
+        return Container.Mutability.MODIFY;
+    }
+
+    @Override
+    public long addAndGet(long delta) {
+        return (long) VALUE.getAndAdd(this, delta) + delta;
+    }
+
+    @Override
+    public boolean compareAndSet(long expect, long update) {
+        return VALUE.compareAndSet(this, expect, update);
+    }
+
+}
@@ -0,0 +1,202 @@
+package coldsrc.coldlib.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+/**
+ * The container created by {@link Container#awaitable(Container)}.
+ *
+ * Waiting futures are kept in a lock-free stack
+ * of nodes, which is detached as a whole and
+ * drained when a value is set, so completed waiters
+ * are not retained. Futures which are completed by
+ * someone else (cancelled, timed out) unlink their
+ * node from the stack.
+ *
+ * @param <V> The value type.
+ */
+final class AwaitableContainer<V> implements Container<V> {
+
+    static final VarHandle WAITERS;
+    static final VarHandle NEXT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            WAITERS = lookup.findVarHandle(AwaitableContainer.class, "waiters", Waiter.class);
+            NEXT    = lookup.findVarHandle(Waiter.class, "next", Waiter.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * A node in the waiter stack.
+     */
+    static final class Waiter<V> implements BiConsumer<V, Throwable> {
+
+        // the owning container
+        final AwaitableContainer<V> owner;
+        // the future awaiting a value
+        final CompletableFuture<V> future;
+        // the next node in the stack
+        volatile Waiter<V> next;
+
+        Waiter(AwaitableContainer<V> owner, CompletableFuture<V> future) {
+            this.owner  = owner;
+            this.future = future;
+        }
+
+        @Override
+        public void accept(V v, Throwable t) {
+            // completed by someone other than the
+            // container, remove the dead node
+            if (t != null)
+                owner.unlinkDone();
+        }
+
+    }
+
+    ////////////////////////////////////////////
+
+    // the wrapped container
+    final Container<V> container;
+
+    // the top of the waiter stack
+    volatile Waiter<V> waiters;
+
+    AwaitableContainer(Container<V> container) {
+        this.container = Objects.requireNonNull(container, "Container can not be null");
+    }
+
+    @Override
+    public V get() {
+        return container.get();
+    }
+
+    @Override
+    public boolean isSet() {
+        return container.isSet();
+    }
+
+    @Override
+    public Container<V> set(V val) {
+        try {
+            container.set(val);
+        } catch (Throwable t) {
+            // fail all waiters and rethrow
+            fail(t);
+            Throwables.sneakyThrow(t);
+        }
+
+        complete(val);
+        return this;
+    }
+
+    /**
+     * Get if any futures are currently waiting.
+     *
+     * @return If there are waiters.
+     */
+    boolean hasWaiters() {
+        return waiters != null;
+    }
+
+    /**
+     * Detach and complete all current waiters
+     * with the provided value.
+     *
+     * @param val The value.
+     */
+    @SuppressWarnings("unchecked")
+    void complete(V val) {
+        for (Waiter<V> w = (Waiter<V>) WAITERS.getAndSet(this, null); w != null; w = w.next)
+            w.future.complete(val);
+    }
+
+    /**
+     * Detach and exceptionally complete all
+     * current waiters with the provided error.
+     *
+     * @param t The error.
+     */
+    @SuppressWarnings("unchecked")
+    void fail(Throwable t) {
+        for (Waiter<V> w = (Waiter<V>) WAITERS.getAndSet(this, null); w != null; w = w.next)
+            w.future.completeExceptionally(t);
+    }
+
+    @Override
+    public Mutability mutability() {
+        return container.mutability();
+    }
+
+    @Override
+    public long version() {
+        return container.version();
+    }
+
+    @Override
+    public boolean canAwait() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<V> await(boolean listen) {
+        // fast path for an already set value, every
+        // caller gets its own future as futures can
+        // be completed or obtruded by their holders
+        if (!listen && isSet())
+            return CompletableFuture.completedFuture(get());
+
+        // push new waiter
+        CompletableFuture<V> future = new CompletableFuture<>();
+        Waiter<V> waiter = new Waiter<>(this, future);
+        Waiter<V> head;
+        do {
+            head = waiters;
+            waiter.next = head;
+        } while (!WAITERS.compareAndSet(this, head, waiter));
+
+        // a value might have been set between the
+        // check and the push, in which case the set
+        // call could have missed this waiter
+        if (!listen && isSet())
+            future.complete(get());
+
+        // unlink when completed externally
+        future.whenComplete(waiter);
+        return future;
+    }
+
+    /**
+     * Unlinks all waiters whose future has already
+     * been completed. Races with concurrent pushes,
+     * drains or unlinks may leave dead nodes behind,
+     * which will be removed by a later call or drain.
+     */
+    void unlinkDone() {
+        // pop dead nodes off the top
+        Waiter<V> p = waiters;
+        while (p != null && p.future.isDone()) {
+            Waiter<V> n = p.next;
+            if (WAITERS.compareAndSet(this, p, n))
+                p = n;
+            else
+                p = waiters;
+        }
+
+        // unlink dead nodes in the rest
+        while (p != null) {
+            Waiter<V> s = p.next;
+            if (s != null && s.future.isDone())
+                NEXT.compareAndSet(p, s, s.next);
+            else
+                p = s;
+        }
+    }
+
+}
@@ -0,0 +1,300 @@
+package coldsrc.coldlib.util;
+
+import coldsrc.coldlib.util.functional.ThrowingSupplier;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A supplier which stops calling a failing supplier for
+ * a while, created by {@link ThrowingSupplier#circuitBroken(Policy)}.
+ *
+ * While closed every call goes to the supplier. Once the
+ * supplier fails the configured amount of times within the
+ * window the breaker opens, and calls fail immediately with
+ * a cached failed result holding a {@link OpenException},
+ * without calling the supplier. After the open duration a
+ * single probe call is let through (half open): if it
+ * succeeds the breaker closes, otherwise it opens again.
+ *
+ * @param <T> The value type.
+ */
+public final class CircuitBreaker<T> implements ThrowingSupplier<T> {
+
+    static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(CircuitBreaker.class, "state", State.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Create a new circuit breaker around the supplier.
+     *
+     * @param supplier The supplier.
+     * @param policy The breaker policy.
+     * @param <T> The value type.
+     * @return The circuit breaker.
+     */
+    public static <T> CircuitBreaker<T> create(ThrowingSupplier<T> supplier, Policy policy) {
+        return new CircuitBreaker<>(supplier, policy);
+    }
+
+    /**
+     * The state of a circuit breaker.
+     */
+    public enum State {
+        /** Calls go to the supplier. */
+        CLOSED,
+        /** Calls fail immediately. */
+        OPEN,
+        /** A single probe call is in progress. */
+        HALF_OPEN
+    }
+
+    /**
+     * When to open and close a circuit breaker.
+     *
+     * @param failureThreshold The failures within the window which open the breaker.
+     * @param window The window failures are counted in.
+     * @param openDuration How long to stay open before probing.
+     */
+    public record Policy(int failureThreshold, Duration window, Duration openDuration) {
+
+        public Policy {
+            if (failureThreshold <= 0)
+                throw new IllegalArgumentException("Failure threshold must be positive");
+            Objects.requireNonNull(window, "Window can not be null");
+            Objects.requireNonNull(openDuration, "Open duration can not be null");
+            if (window.isNegative() || window.isZero())
+                throw new IllegalArgumentException("Window must be positive");
+            if (openDuration.isNegative() || openDuration.isZero())
+                throw new IllegalArgumentException("Open duration must be positive");
+        }
+
+        /**
+         * Create a new policy.
+         *
+         * @param failureThreshold The failures within the window which open the breaker.
+         * @param window The window failures are counted in.
+         * @param openDuration How long to stay open before probing.
+         * @return The policy.
+         */
+        public static Policy of(int failureThreshold, Duration window, Duration openDuration) {
+            return new Policy(failureThreshold, window, openDuration);
+        }
+
+    }
+
+    /**
+     * The stackless error of the results returned
+     * while the breaker is open, with the last failure
+     * of the supplier as the cause.
+     */
+    public static class OpenException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public OpenException(Throwable cause) {
+            super("Circuit breaker is open", cause, false, false);
+        }
+
+    }
+
+    ////////////////////////////////////////////
+
+    CircuitBreaker(ThrowingSupplier<T> supplier, Policy policy) {
+        this.supplier          = Objects.requireNonNull(supplier, "Supplier can not be null");
+        this.policy            = Objects.requireNonNull(policy, "Policy can not be null");
+        this.windowNanos       = policy.window().toNanos();
+        this.openDurationNanos = policy.openDuration().toNanos();
+    }
+
+    // the wrapped supplier
+    final ThrowingSupplier<T> supplier;
+    // the policy
+    final Policy policy;
+    final long windowNanos;
+    final long openDurationNanos;
+
+    // the current state
+    volatile State state = State.CLOSED;
+    // when the breaker was last opened
+    volatile long openedAt;
+    // the result returned while open
+    volatile Result<T> openResult;
+
+    // the failures in the current window, guarded by this
+    int windowFailures;
+    long windowStart;
+    // the last failure of the supplier
+    volatile Throwable lastError;
+
+    /* Stats */
+    final LongAdder successes = new LongAdder();
+    final LongAdder failures  = new LongAdder();
+    final LongAdder rejected  = new LongAdder();
+    final LongAdder trips     = new LongAdder();
+
+    /**
+     * Call the supplier if the breaker allows it,
+     * otherwise return the cached failed result.
+     *
+     * @return The result.
+     */
+    @Override
+    public Result<T> attempt() {
+        State s = state;
+        if (s == State.CLOSED)
+            return call(false);
+
+        // try to become the probe once
+        // the open duration has passed
+        if (s == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos &&
+                STATE.compareAndSet(this, State.OPEN, State.HALF_OPEN))
+            return call(true);
+
+        rejected.increment();
+        return openResult;
+    }
+
+    @Override
+    public T issue() throws Throwable {
+        Result<T> result = attempt();
+        Throwable t = result.error();
+        if (t != null)
+            throw t;
+        return result.orNull();
+    }
+
+    private Result<T> call(boolean probe) {
+        Result<T> result;
+        try {
+            result = Result.success(supplier.issue());
+        } catch (Throwable t) {
+            lastError = t;
+            failures.increment();
+            if (probe)
+                open(t);
+            else
+                recordFailure(t);
+            return Result.failed(t);
+        }
+
+        successes.increment();
+        if (probe)
+            close();
+        return result;
+    }
+
+    // count a failure in the window
+    private synchronized void recordFailure(Throwable t) {
+        if (state != State.CLOSED)
+            return;
+
+        long now = System.nanoTime();
+        if (windowFailures == 0 || now - windowStart > windowNanos) {
+            windowStart = now;
+            windowFailures = 0;
+        }
+
+        if (++windowFailures >= policy.failureThreshold())
+            open(t);
+    }
+
+    // open the breaker
+    private synchronized void open(Throwable cause) {
+        openResult = Result.failed(new OpenException(cause));
+        openedAt = System.nanoTime();
+        windowFailures = 0;
+        state = State.OPEN;
+        trips.increment();
+    }
+
+    // close the breaker
+    private synchronized void close() {
+        windowFailures = 0;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Close the breaker and reset the failure
+     * count, letting calls through immediately.
+     */
+    public void reset() {
+        close();
+    }
+
+    /**
+     * Get the current state.
+     *
+     * @return The state.
+     */
+    public State state() {
+        return state;
+    }
+
+    /**
+     * Get the last failure of the supplier.
+     *
+     * @return The error or null if none.
+     */
+    public Throwable lastError() {
+        return lastError;
+    }
+
+    /* Getters */
+
+    /**
+     * Get the policy of this breaker.
+     *
+     * @return The policy.
+     */
+    public Policy policy() {
+        return policy;
+    }
+
+    /**
+     * Get the amount of successful supplier calls.
+     *
+     * @return The count.
+     */
+    public long successCount() {
+        return successes.sum();
+    }
+
+    /**
+     * Get the amount of failed supplier calls.
+     *
+     * @return The count.
+     */
+    public long failureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Get the amount of calls which were rejected
+     * without calling the supplier.
+     *
+     * @return The count.
+     */
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Get the amount of times the breaker opened.
+     *
+     * @return The count.
+     */
+    public long tripCount() {
+        return trips.sum();
+    }
+
+}
@@ -0,0 +1,89 @@
+package coldsrc.coldlib.util;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * The container created by {@link Container#computed(Supplier, Container[])}.
+ *
+ * The version of this container is the sum of the
+ * versions of its dependencies. As dependency versions
+ * only ever increase, the sum changes if and only if
+ * any dependency changed, which is all that is needed
+ * to decide whether the memoized value is still valid.
+ *
+ * @param <R> The value type.
+ */
+final class ComputedContainer<R> implements Container<R> {
+
+    /**
+     * A computed value with the version
+     * it was computed at.
+     */
+    record Snapshot<R>(R value, long version) { }
+
+    ////////////////////////////////////////////
+
+    // the function computing the value
+    final Supplier<R> function;
+    // the containers the value depends on
+    final Container<?>[] dependencies;
+
+    // the last computed value
+    volatile Snapshot<R> snapshot;
+
+    ComputedContainer(Supplier<R> function,
+                      Container<?>... dependencies) {
+        this.function     = Objects.requireNonNull(function, "Function can not be null");
+        this.dependencies = Objects.requireNonNull(dependencies, "Dependencies can not be null").clone();
+        for (Container<?> dependency : this.dependencies)
+            Objects.requireNonNull(dependency, "Dependency can not be null");
+    }
+
+    @Override
+    public R get() {
+        // read the version before computing, so
+        // a concurrent modification can only cause
+        // an extra computation on the next query
+        long version = version();
+        Snapshot<R> s = snapshot;
+        if (s != null && s.version == version && version != VERSION_UNTRACKED)
+            return s.value;
+
+        R value = function.get();
+        snapshot = new Snapshot<>(value, version);
+        return value;
+    }
+
+    @Override
+    public boolean isSet() {
+        for (Container<?> dependency : dependencies)
+            if (!dependency.isSet())
+                return false;
+        return true;
+    }
+
+    @Override
+    public Container<R> set(R val) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Mutability mutability() {
+        return Mutability.UNSUPPORTED;
+    }
+
+    @Override
+    public long version() {
+        long sum = 0;
+        for (Container<?> dependency : dependencies) {
+            long v = dependency.version();
+            if (v == VERSION_UNTRACKED)
+                return VERSION_UNTRACKED;
+            sum += v;
+        }
+
+        return sum;
+    }
+
+}
@@ -1,13 +1,16 @@
 package coldsrc.coldlib.util;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * A class responsible for holding a
@@ -18,6 +21,14 @@ import java.util.function.Supplier;
  */
 public interface Container<V> {
 
+    /**
+     * The version reported by containers
+     * which do not track modifications.
+     *
+     * @see Container#version()
+     */
+    long VERSION_UNTRACKED = -1;
+
     /**
      * Create a new immutable container
      * with the value already set.
@@ -49,6 +60,12 @@ public interface Container<V> {
                 return Mutability.UNSUPPORTED;
             }
 
+
+            @Override
+            public long version() {
+                return 0;
+            }
+
         };
     }
 
@@ -91,6 +108,12 @@ public interface Container<V> {
             public Mutability mutability() {
                 return set ? Mutability.UNSUPPORTED : Mutability.MODIFY;
             }
+
+            @Override
+            public long version() {
+                return set ? 1 : 0;
+            }
+
         };
     }
 
@@ -109,6 +132,8 @@ public interface Container<V> {
         return new Container<>() {
             // the value currently stored
             V value = val;
+            // the modification count
+            long version;
 
             @Override
             public V get() {
@@ -123,6 +148,7 @@ public interface Container<V> {
             @Override
             public Container<V> set(V val) {
                 value = val;
+                version++;
                 return this;
             }
 
@@ -130,6 +156,12 @@ public interface Container<V> {
             public Mutability mutability() {
                 return Mutability.MODIFY;
             }
+
+            @Override
+            public long version() {
+                return version;
+            }
+
         };
     }
 
@@ -152,6 +184,13 @@ public interface Container<V> {
      * denied callers according to
      * the provided stack frame predicate.
      *
+     * The caller frame is found with a {@link StackWalker},
+     * skipping the container implementations of this package.
+     * As the predicate may depend on the method and line of
+     * the caller, it is tested on every access. Prefer
+     * {@link Container#protectByClass(Container, Predicate, boolean)}
+     * for frequently accessed containers.
+     *
      * @param container The container to wrap.
      * @param predicate The predicate to test the frames with.
      * @param protectNew If new instances created by any of the
@@ -164,56 +203,52 @@ public interface Container<V> {
     static <V> Container<V> protect(final Container<V> container,
                                     final Predicate<StackTraceElement> predicate,
                                     final boolean protectNew) {
-        // return new container
-        return new Container<>() {
-            /**
-             * Check the access for the caller of
-             * the function which called this.
-             */
-            private void checkAccess() {
-                throw new UnsupportedOperationException("TODO");
-//                StackTraceElement element = TODO;
-//                if (!predicate.test(element))
-//                    throw new SecurityException("Access to container denied");
-            }
-
-            @Override
-            public V get() {
-                checkAccess();
-                return container.get();
-            }
-
-            @Override
-            public boolean isSet() {
-                checkAccess();
-                return container.isSet();
-            }
-
-            @Override
-            public Container<V> set(V val) {
-                checkAccess();
-
-                // get return value
-                Container<V> ret = container.set(val);
+        return new ProtectedContainer<>(container, ProtectedContainer.elementCheck(predicate), protectNew);
+    }
 
-                if (ret != container)
-                    if (protectNew)
-                        // protect new instances
-                        return Container.protect(ret, predicate, true);
-                    else
-                        // dont protect new instance
-                        return ret;
-                else
-                    // return already protected this
-                    return this;
-            }
+    /**
+     * Wraps the given container in an
+     * access layer protecting it against
+     * denied callers according to
+     * the provided caller class predicate.
+     *
+     * The decision is cached per caller class, so
+     * repeated access from the same class only costs
+     * a stack walk of a few frames and a lookup.
+     *
+     * @see Container#protect(Container, Predicate, boolean)
+     * @param container The container to wrap.
+     * @param predicate The predicate to test the caller classes with.
+     * @param protectNew If new instances should be protected too.
+     * @param <V> The value type.
+     * @return The new wrapped container.
+     */
+    static <V> Container<V> protectByClass(final Container<V> container,
+                                           final Predicate<Class<?>> predicate,
+                                           final boolean protectNew) {
+        return new ProtectedContainer<>(container, ProtectedContainer.classCheck(predicate), protectNew);
+    }
 
-            @Override
-            public Mutability mutability() {
-                checkAccess();
-                return container.mutability();
-            }
-        };
+    /**
+     * Wraps the given container in an
+     * access layer protecting it against
+     * denied callers according to
+     * the provided caller module predicate.
+     *
+     * The decision is cached per caller class.
+     *
+     * @see Container#protectByClass(Container, Predicate, boolean)
+     * @param container The container to wrap.
+     * @param predicate The predicate to test the caller modules with.
+     * @param protectNew If new instances should be protected too.
+     * @param <V> The value type.
+     * @return The new wrapped container.
+     */
+    static <V> Container<V> protectByModule(final Container<V> container,
+                                            final Predicate<Module> predicate,
+                                            final boolean protectNew) {
+        Objects.requireNonNull(predicate, "Predicate can not be null");
+        return protectByClass(container, type -> predicate.test(type.getModule()), protectNew);
     }
 
     /**
@@ -251,78 +286,92 @@ public interface Container<V> {
             public Mutability mutability() {
                 return Mutability.FORK;
             }
+
+            @Override
+            public long version() {
+                return container.version();
+            }
+
         };
     }
 
     /**
-     * Create a new container wrapping the
-     * provided, already existent container,
-     * to introduce awaiting functionality.
-     * It supports multiple futures awaiting
-     * an event at once.
+     * Create a new forking container holding a snapshot
+     * of a persistent value, like a {@link coldsrc.coldlib.util.persistent.PersistentMap}.
+     * Setting a value never modifies this container but
+     * returns a new one holding the new value, so a fork
+     * only costs as much as the persistent modification,
+     * which shares structure with the previous value.
      *
-     * If an error is thrown, all futures will
-     * be completed exceptionally, after which
-     * the error will be rethrown using
-     * {@link Throwables#sneakyThrow(Throwable)}.
+     * Example:
+     * <pre>{@code
+     * Container<PersistentMap<UUID, State>> states = Container.persistent(PersistentMap.empty());
+     * Container<PersistentMap<UUID, State>> next = states.update(m -> m.with(id, state));
+     * }</pre>
      *
-     * @param container The container to wrap.
+     * @param value The value.
      * @param <V> The value type.
-     * @return The new, wrapper container.
+     * @return The container instance.
      */
-    static <V> Container<V> awaitable(final Container<V> container) {
+    static <V> Container<V> persistent(final V value) {
+        return persistent(value, 0);
+    }
+
+    private static <V> Container<V> persistent(final V value, final long version) {
         // return new container
         return new Container<>() {
-            // the futures awaiting
-            final List<CompletableFuture<V>> futures = new ArrayList<>();
-
             @Override
             public V get() {
-                return container.get();
+                return value;
             }
 
             @Override
             public boolean isSet() {
-                return container.isSet();
+                return true;
             }
 
             @Override
             public Container<V> set(V val) {
-                try {
-                    container.set(val);
-                    for (CompletableFuture<V> future : futures)
-                        future.complete(val);
-                } catch (Throwable t) {
-                    for (CompletableFuture<V> future : futures)
-                        future.completeExceptionally(t);
-                    Throwables.sneakyThrow(t);
-                }
-
-                return this;
+                return persistent(val, version + 1);
             }
 
             @Override
             public Mutability mutability() {
-                return container.mutability();
+                return Mutability.FORK;
             }
 
             @Override
-            public boolean canAwait() {
-                return true;
+            public long version() {
+                return version;
             }
 
-            @Override
-            public CompletableFuture<V> await(boolean listen) {
-                CompletableFuture<V> future = new CompletableFuture<>();
-                if (!listen && isSet())
-                    future.complete(get());
-                else
-                    futures.add(future);
-                return future;
-            }
         };
     }
 
+    /**
+     * Create a new container wrapping the
+     * provided, already existent container,
+     * to introduce awaiting functionality.
+     * It supports multiple futures awaiting
+     * an event at once.
+     *
+     * If an error is thrown, all futures will
+     * be completed exceptionally, after which
+     * the error will be rethrown using
+     * {@link Throwables#sneakyThrow(Throwable)}.
+     *
+     * The waiters are stored lock-free and are
+     * released once completed, so it is safe to
+     * await and set from multiple threads.
+     *
+     * @param container The container to wrap.
+     * @param <V> The value type.
+     * @return The new, wrapper container.
+     */
+    static <V> Container<V> awaitable(final Container<V> container) {
+        return new AwaitableContainer<>(container);
+    }
+
     /**
      * Wraps the provided container to make it
      * immutable. This does not affect the original
@@ -354,6 +403,12 @@ public interface Container<V> {
             public Mutability mutability() {
                 return Mutability.UNSUPPORTED;
             }
+
+            @Override
+            public long version() {
+                return container.version();
+            }
+
         };
     }
 
@@ -362,83 +417,289 @@ public interface Container<V> {
      * the value using the provided supplier when
      * it is first queried.
      *
-     * This container is immutable.
+     * This container is immutable and uses
+     * {@link LazyMode#SYNCHRONIZED}, so the supplier
+     * is called at most once even when queried
+     * from multiple threads at the same time.
      *
      * @param supplier The lazy loader.
      * @param <V> The value type.
      * @return The lazy loaded container instance.
      */
     static <V> Container<V> lazy(Supplier<V> supplier) {
-        return new Container<>() {
-            // if we have a cached value
-            boolean hasCached;
-            // the cached value
-            V cached;
+        return lazy(LazyMode.SYNCHRONIZED, supplier);
+    }
 
-            @Override
-            public V get() {
-                if (!hasCached) {
-                    cached = supplier.get();
-                    hasCached = true;
-                }
+    /**
+     * Create a new container which lazy loads
+     * the value using the provided supplier when
+     * it is first queried, synchronizing the load
+     * as specified by the provided mode.
+     *
+     * This container is immutable.
+     *
+     * @param mode The thread safety mode.
+     * @param supplier The lazy loader.
+     * @param <V> The value type.
+     * @return The lazy loaded container instance.
+     */
+    static <V> Container<V> lazy(LazyMode mode, Supplier<V> supplier) {
+        return LazyContainer.create(mode, supplier);
+    }
 
-                return cached;
-            }
+    /**
+     * Create a new container which holds a separate
+     * value for every thread, lazily created by the
+     * initializer the first time it is queried on
+     * a thread.
+     *
+     * @see ThreadLocalContainer
+     * @param initializer The per thread value loader.
+     * @param <V> The value type.
+     * @return The thread local container.
+     */
+    static <V> ThreadLocalContainer<V> threadLocal(Supplier<V> initializer) {
+        return new ThreadLocalContainer<>(initializer);
+    }
 
-            @Override
-            public boolean isSet() {
-                return true;
-            }
+    /**
+     * Create a new container whose value is bound
+     * for the duration of a task on the current thread,
+     * like a {@code ScopedValue}. Creating one is cheap,
+     * and bindings are always released after the task.
+     *
+     * @see ScopedContainer
+     * @param <V> The value type.
+     * @return The scoped container.
+     */
+    static <V> ScopedContainer<V> scoped() {
+        return new ScopedContainer<>();
+    }
 
-            @Override
-            public Container<V> set(V val) {
-                throw new UnsupportedOperationException();
-            }
+    /**
+     * Create a new container which holds the value
+     * loaded by the supplier through a soft reference,
+     * loading it again if it was cleared by the garbage
+     * collector under memory pressure.
+     *
+     * @see ReferenceContainer
+     * @param supplier The value loader.
+     * @param <V> The value type.
+     * @return The soft reference container.
+     */
+    static <V> ReferenceContainer<V> soft(Supplier<V> supplier) {
+        return new ReferenceContainer<>(supplier, true);
+    }
 
-            @Override
-            public Mutability mutability() {
-                return Mutability.UNSUPPORTED;
-            }
-        };
+    /**
+     * Create a new container which holds the value
+     * loaded by the supplier through a weak reference,
+     * loading it again if it was cleared by the garbage
+     * collector once no longer strongly referenced.
+     *
+     * @see ReferenceContainer
+     * @param supplier The value loader.
+     * @param <V> The value type.
+     * @return The weak reference container.
+     */
+    static <V> ReferenceContainer<V> weak(Supplier<V> supplier) {
+        return new ReferenceContainer<>(supplier, false);
+    }
+
+    /**
+     * Create a new lazy container which immediately
+     * starts loading its value on the provided executor,
+     * so it is likely to be ready when first queried.
+     * Querying the value before it is loaded blocks until
+     * it is, or loads it if the task has not started yet.
+     *
+     * @see PreloadingContainer
+     * @see PreloadGroup
+     * @param supplier The value loader.
+     * @param executor The executor to load on.
+     * @param <V> The value type.
+     * @return The preloading container.
+     */
+    static <V> PreloadingContainer<V> preloading(Supplier<V> supplier,
+                                                 Executor executor) {
+        PreloadingContainer<V> container = new PreloadingContainer<>(supplier);
+        container.preload(executor);
+        return container;
+    }
+
+    /**
+     * Create a new lazy container which immediately
+     * starts loading its value on the {@link AsyncExecutors#sharedExecutor()}.
+     *
+     * @see Container#preloading(Supplier, Executor)
+     * @param supplier The value loader.
+     * @param <V> The value type.
+     * @return The preloading container.
+     */
+    static <V> PreloadingContainer<V> preloading(Supplier<V> supplier) {
+        return preloading(supplier, AsyncExecutors.sharedExecutor());
+    }
+
+    /**
+     * An immutable container holding the parsed contents
+     * of a file, which is reloaded on the executor when the
+     * file changes on disk. The initial load is started
+     * immediately, and failed loads keep the previous value.
+     *
+     * @see FileBackedContainer
+     * @param path The file to watch.
+     * @param parser The file parser.
+     * @param executor The executor to parse on.
+     * @param <V> The value type.
+     * @return The file backed container instance.
+     */
+    static <V> FileBackedContainer<V> fileBacked(Path path,
+                                                 FileBackedContainer.Parser<V> parser,
+                                                 Executor executor) {
+        return new FileBackedContainer<>(path, parser, executor);
+    }
+
+    /**
+     * An immutable container holding the parsed contents
+     * of a file, which is reloaded on the {@link AsyncExecutors#sharedExecutor()}
+     * when the file changes on disk.
+     *
+     * @see Container#fileBacked(Path, FileBackedContainer.Parser, Executor)
+     * @param path The file to watch.
+     * @param parser The file parser.
+     * @param <V> The value type.
+     * @return The file backed container instance.
+     */
+    static <V> FileBackedContainer<V> fileBacked(Path path,
+                                                 FileBackedContainer.Parser<V> parser) {
+        return fileBacked(path, parser, AsyncExecutors.sharedExecutor());
+    }
+
+    /**
+     * Create a new container which caches the value
+     * produced by the supplier for the provided time.
+     * Once expired, the stale value is served while a
+     * single refresh runs on the {@link AsyncExecutors#sharedExecutor()}.
+     *
+     * @see ExpiringContainer
+     * @param supplier The value loader.
+     * @param ttl The time after which the value is refreshed.
+     * @param <V> The value type.
+     * @return The expiring container instance.
+     */
+    static <V> ExpiringContainer<V> expiring(Supplier<V> supplier,
+                                             Duration ttl) {
+        return expiring(supplier, ttl, AsyncExecutors.sharedExecutor());
+    }
+
+    /**
+     * Create a new container which caches the value
+     * produced by the supplier for the provided time.
+     * Once expired, the stale value is served while a
+     * single refresh runs on the provided executor
+     * (stale-while-revalidate), so callers only block
+     * when no value has been loaded yet.
+     *
+     * @see ExpiringContainer
+     * @param supplier The value loader.
+     * @param ttl The time after which the value is refreshed.
+     * @param executor The executor to refresh on.
+     * @param <V> The value type.
+     * @return The expiring container instance.
+     */
+    static <V> ExpiringContainer<V> expiring(Supplier<V> supplier,
+                                             Duration ttl,
+                                             Executor executor) {
+        return new ExpiringContainer<>(supplier, ttl, null, executor);
+    }
+
+    /**
+     * Create a new container which caches the value
+     * produced by the supplier, starting a background
+     * refresh on the provided executor once the value
+     * is older than {@code refreshAfter}. The value
+     * is served until it is older than {@code ttl},
+     * after which callers will block to reload it.
+     *
+     * @see ExpiringContainer
+     * @param supplier The value loader.
+     * @param refreshAfter The age after which a refresh is started.
+     * @param ttl The age after which the value can not be served.
+     * @param executor The executor to refresh on.
+     * @param <V> The value type.
+     * @return The expiring container instance.
+     */
+    static <V> ExpiringContainer<V> refreshAhead(Supplier<V> supplier,
+                                                 Duration refreshAfter,
+                                                 Duration ttl,
+                                                 Executor executor) {
+        Objects.requireNonNull(ttl, "Time to live can not be null");
+        return new ExpiringContainer<>(supplier, refreshAfter, ttl, executor);
     }
 
     /**
      * A mutable container which stores the current
-     * value in an atomic reference making it thread
-     * safe.
+     * value in an atomic state field making it thread
+     * safe. Use {@link AtomicContainer#create()} for
+     * atomic compare and update operations.
      *
      * @param <V> The value type.
      * @return The atomic container instance.
      */
     static <V> Container<V> atomic() {
-        return new Container<>() {
-            // the reference
-            final AtomicReference<V> reference = new AtomicReference<>();
-            // if a value is set
-            boolean set;
-
-            @Override
-            public V get() {
-                return reference.get();
-            }
+        return AtomicContainer.create();
+    }
 
-            @Override
-            public boolean isSet() {
-                return set;
-            }
+    /**
+     * A mutable container which stores the current
+     * value in an atomic state field making it thread
+     * safe, with the value pre-set.
+     *
+     * @see Container#atomic()
+     * @param val The value to pre-set.
+     * @param <V> The value type.
+     * @return The atomic container instance.
+     */
+    static <V> Container<V> atomic(V val) {
+        return AtomicContainer.create(val);
+    }
 
-            @Override
-            public Container<V> set(V val) {
-                set = true;
-                reference.set(val);
-                return this;
-            }
+    /**
+     * A mutable container for read-mostly values made up
+     * of multiple fields, which are stored in place in
+     * slots guarded by a sequence lock. Reads are lock free
+     * and retry on concurrent writes, writes do not allocate.
+     *
+     * @see SeqLockContainer
+     * @param longSlots The amount of primitive slots.
+     * @param refSlots The amount of reference slots.
+     * @param reader The function creating a value from the slots.
+     * @param writer The function storing a value into the slots.
+     * @param <V> The value type.
+     * @return The seqlock container instance.
+     */
+    static <V> SeqLockContainer<V> seqLocked(int longSlots,
+                                             int refSlots,
+                                             Function<SeqLockContainer.View, V> reader,
+                                             BiConsumer<SeqLockContainer.Writer, V> writer) {
+        return new SeqLockContainer<>(longSlots, refSlots,
+                SeqLockContainer.requireFunction(reader),
+                SeqLockContainer.requireFunction(writer));
+    }
 
-            @Override
-            public Mutability mutability() {
-                return Mutability.MODIFY;
-            }
-        };
+    /**
+     * A container with raw slots guarded by a sequence lock,
+     * accessed through {@link SeqLockContainer#read(Function)}
+     * and {@link SeqLockContainer#write(java.util.function.Consumer)}.
+     *
+     * @see Container#seqLocked(int, int, Function, BiConsumer)
+     * @param longSlots The amount of primitive slots.
+     * @param refSlots The amount of reference slots.
+     * @param <V> The value type.
+     * @return The seqlock container instance.
+     */
+    static <V> SeqLockContainer<V> seqLocked(int longSlots, int refSlots) {
+        return new SeqLockContainer<>(longSlots, refSlots, null, null);
     }
 
     /**
@@ -475,9 +736,78 @@ public interface Container<V> {
             public Mutability mutability() {
                 return Mutability.UNSUPPORTED;
             }
+
+            @Override
+            public long version() {
+                return container.version();
+            }
+
         };
     }
 
+    /**
+     * Create a new container which memoizes the result
+     * of the provided function, only calling it again
+     * when the version of any of the provided dependencies
+     * has changed. The function should only read from
+     * the dependencies.
+     *
+     * The version of the computed container is derived from
+     * its dependencies, so computed containers can depend on
+     * each other, in which case changes propagate through
+     * the dependency graph when the values are queried.
+     * If any dependency does not track its version, the
+     * value is recomputed on every query.
+     *
+     * This container is immutable.
+     *
+     * @param function The function computing the value.
+     * @param dependencies The containers the value is derived from.
+     * @param <R> The value type.
+     * @return The computed container.
+     */
+    static <R> Container<R> computed(final Supplier<R> function,
+                                     final Container<?>... dependencies) {
+        return new ComputedContainer<>(function, dependencies);
+    }
+
+    /**
+     * Create a new container which memoizes the result of
+     * mapping the value of the provided container, only
+     * calling the function again when its version changes.
+     *
+     * @see Container#computed(Supplier, Container[])
+     * @param container The dependency.
+     * @param function The V -> R function.
+     * @param <V> The dependency value type.
+     * @param <R> The value type.
+     * @return The computed container.
+     */
+    static <V, R> Container<R> computed(final Container<V> container,
+                                        final Function<V, R> function) {
+        return new ComputedContainer<>(() -> function.apply(container.get()), container);
+    }
+
+    /**
+     * Create a new container which memoizes the result of
+     * combining the values of the provided containers, only
+     * calling the function again when either version changes.
+     *
+     * @see Container#computed(Supplier, Container[])
+     * @param a The first dependency.
+     * @param b The second dependency.
+     * @param function The (A, B) -> R function.
+     * @param <A> The first dependency value type.
+     * @param <B> The second dependency value type.
+     * @param <R> The value type.
+     * @return The computed container.
+     */
+    static <A, B, R> Container<R> computed(final Container<A> a,
+                                           final Container<B> b,
+                                           final BiFunction<A, B, R> function) {
+        return new ComputedContainer<>(() -> function.apply(a.get(), b.get()), a, b);
+    }
+
     /**
      * Wraps the given container with a two-way mapping system
      * returning a bi-mapped container, which converts
@@ -516,6 +846,12 @@ public interface Container<V> {
             public Mutability mutability() {
                 return container.mutability();
             }
+
+            @Override
+            public long version() {
+                return container.version();
+            }
+
         };
     }
 
@@ -575,6 +911,39 @@ public interface Container<V> {
 
     }
 
+    /**
+     * Specifies how a lazy container created by
+     * {@link Container#lazy(LazyMode, Supplier)}
+     * synchronizes loading the value. In all modes
+     * the value is published safely once loaded, so
+     * querying a loaded value is a single field read.
+     */
+    enum LazyMode {
+        /**
+         * Loading is guarded by a lock with double-checked
+         * locking, the supplier is called at most once.
+         * Threads querying during the load will block
+         * until the value is available.
+         */
+        SYNCHRONIZED,
+
+        /**
+         * Loading is not guarded, so multiple threads may
+         * call the supplier concurrently, but only the value
+         * of the first to finish is published (by CAS) and
+         * returned to all callers.
+         */
+        PUBLICATION,
+
+        /**
+         * No synchronization at all. Only use this when
+         * the container is confined to a single thread,
+         * like the server main thread.
+         */
+        NONE
+
+    }
+
     ////////////////////////////////////////////
 
     /**
@@ -690,6 +1059,24 @@ public interface Container<V> {
      */
     Mutability mutability();
 
+    /**
+     * Get the version stamp of the value in
+     * this container. The stamp increases
+     * monotonically with every modification,
+     * so an unchanged stamp means an unchanged
+     * value. Wrapper containers report the stamp
+     * of the containers they derive from.
+     *
+     * Containers which do not track modifications
+     * return {@link Container#VERSION_UNTRACKED},
+     * which is the default.
+     *
+     * @return The version stamp.
+     */
+    default long version() {
+        return VERSION_UNTRACKED;
+    }
+
     /**
      * Get if you can await/listen a value.
      *
@@ -749,10 +1136,28 @@ public interface Container<V> {
         return protect(this, predicate, newProtected);
     }
 
+    default Container<V> asProtectedByClass(Predicate<Class<?>> predicate,
+                                            boolean newProtected) {
+        return protectByClass(this, predicate, newProtected);
+    }
+
     default Container<V> asForking(BiFunction<Container<V>, V, Container<V>> forkConstructor) {
         return forking(this, forkConstructor);
     }
 
+    /**
+     * Set the value to the result of the provided
+     * function applied to the current value. For
+     * forking containers the returned container
+     * holds the result, otherwise this is returned.
+     *
+     * @param function The update function.
+     * @return The container holding the result.
+     */
+    default Container<V> update(UnaryOperator<V> function) {
+        return set(function.apply(get()));
+    }
+
     default Container<V> immutable() {
         return immutable(this);
     }
@@ -761,6 +1166,10 @@ public interface Container<V> {
         return Container.mapped(this, function);
     }
 
+    default <R> Container<R> compute(Function<V, R> function) {
+        return Container.computed(this, function);
+    }
+
     default <R> Container<R> biMap(Function<V, R> toFunction,
                                    Function<R, V> fromFunction) {
         return Container.biMapped(this, toFunction, fromFunction);
@@ -0,0 +1,564 @@
+package coldsrc.coldlib.util;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A {@link Container} specialized for {@code double}
+ * values. The primitive accessors never box, a boxed
+ * {@link Container} view can be obtained through
+ * {@link DoubleContainer#boxed()} when needed.
+ *
+ * This class extends {@link DoubleSupplier} for inter-op.
+ */
+public interface DoubleContainer extends DoubleSupplier {
+
+    /**
+     * Create a new immutable container
+     * with the value already set.
+     *
+     * @param value The final value.
+     * @return The container instance.
+     */
+    static DoubleContainer finalImmutable(final double value) {
+        // return new container
+        return new DoubleContainer() {
+            @Override
+            public double getAsDouble() {
+                return value;
+            }
+
+            @Override
+            public boolean isSet() {
+                return true;
+            }
+
+            @Override
+            public DoubleContainer setDouble(double val) {
+                throw new UnsupportedOperationException("Container is immutable");
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return Container.Mutability.UNSUPPORTED;
+            }
+        };
+    }
+
+    /**
+     * Create a new mutable container instance
+     * with the value pre-set.
+     *
+     * @param val The value to pre-set.
+     * @return The container instance.
+     */
+    static DoubleContainer mutable(final double val) {
+        // return new container
+        return new DoubleContainer() {
+            // the value currently stored
+            double value = val;
+
+            @Override
+            public double getAsDouble() {
+                return value;
+            }
+
+            @Override
+            public boolean isSet() {
+                return true;
+            }
+
+            @Override
+            public DoubleContainer setDouble(double val) {
+                value = val;
+                return this;
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return Container.Mutability.MODIFY;
+            }
+        };
+    }
+
+    /**
+     * Create a new mutable container instance
+     * with the value pre-set to {@code 0}.
+     *
+     * @return The container instance.
+     */
+    static DoubleContainer mutable() {
+        return mutable(0);
+    }
+
+    /**
+     * A mutable container which stores the current
+     * value in a volatile field, updated atomically
+     * making it thread safe. It starts at zero and
+     * is always set.
+     *
+     * @return The atomic container instance.
+     */
+    static DoubleContainer atomic() {
+        return new AtomicDoubleContainer(0);
+    }
+
+    /**
+     * A mutable container which stores the current
+     * value in a volatile field, updated atomically
+     * making it thread safe.
+     *
+     * @param val The value to pre-set.
+     * @return The atomic container instance.
+     */
+    static DoubleContainer atomic(double val) {
+        return new AtomicDoubleContainer(val);
+    }
+
+    /**
+     * Create a new container which lazy loads
+     * the value using the provided supplier when
+     * it is first queried, using {@link Container.LazyMode#SYNCHRONIZED}.
+     *
+     * This container is immutable.
+     *
+     * @param supplier The lazy loader.
+     * @return The lazy loaded container instance.
+     */
+    static DoubleContainer lazy(DoubleSupplier supplier) {
+        return lazy(Container.LazyMode.SYNCHRONIZED, supplier);
+    }
+
+    /**
+     * Create a new container which lazy loads
+     * the value using the provided supplier when
+     * it is first queried, synchronizing the load
+     * as specified by the provided mode.
+     *
+     * This container is immutable.
+     *
+     * @param mode The thread safety mode.
+     * @param supplier The lazy loader.
+     * @return The lazy loaded container instance.
+     */
+    static DoubleContainer lazy(final Container.LazyMode mode,
+                             final DoubleSupplier supplier) {
+        Objects.requireNonNull(mode, "Lazy mode can not be null");
+        Objects.requireNonNull(supplier, "Supplier can not be null");
+        if (mode == Container.LazyMode.PUBLICATION)
+            return new LazyPublication.OfDouble(supplier);
+        return new DoubleContainer() {
+            // if the value has been loaded, the
+            // volatile write publishes the value
+            volatile boolean initialized;
+            // the cached value
+            double value;
+
+            @Override
+            public double getAsDouble() {
+                if (initialized)
+                    return value;
+
+                switch (mode) {
+                    case NONE -> {
+                        value = supplier.getAsDouble();
+                        initialized = true;
+                    }
+
+                    case SYNCHRONIZED -> {
+                        synchronized (this) {
+                            if (!initialized) {
+                                value = supplier.getAsDouble();
+                                initialized = true;
+                            }
+                        }
+                    }
+                }
+
+                return value;
+            }
+
+            @Override
+            public boolean isSet() {
+                return true;
+            }
+
+            @Override
+            public DoubleContainer setDouble(double val) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return Container.Mutability.UNSUPPORTED;
+            }
+        };
+    }
+
+    /**
+     * Wraps the given container with the provided
+     * mapping function to return an immutable container
+     * which maps the queried value.
+     *
+     * @param container The container to wrap.
+     * @param function The mapper.
+     * @return The mapping container.
+     */
+    static DoubleContainer mapped(final DoubleContainer container,
+                               final DoubleUnaryOperator function) {
+        return new DoubleContainer() {
+            @Override
+            public double getAsDouble() {
+                return function.applyAsDouble(container.getAsDouble());
+            }
+
+            @Override
+            public boolean isSet() {
+                return container.isSet();
+            }
+
+            @Override
+            public DoubleContainer setDouble(double val) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return Container.Mutability.UNSUPPORTED;
+            }
+        };
+    }
+
+    /**
+     * Wraps the given generic container with the provided
+     * mapping function to return an immutable container
+     * which maps the queried value of type {@code V} to
+     * a {@code double}.
+     *
+     * @param container The container to wrap.
+     * @param function The V -> double mapper.
+     * @param <V> The original value type.
+     * @return The mapping container.
+     */
+    static <V> DoubleContainer mapped(final Container<V> container,
+                                   final ToDoubleFunction<V> function) {
+        return new DoubleContainer() {
+            @Override
+            public double getAsDouble() {
+                return function.applyAsDouble(container.get());
+            }
+
+            @Override
+            public boolean isSet() {
+                return container.isSet();
+            }
+
+            @Override
+            public DoubleContainer setDouble(double val) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return Container.Mutability.UNSUPPORTED;
+            }
+        };
+    }
+
+    /**
+     * Create a new container wrapping the
+     * provided container to introduce awaiting
+     * functionality, like {@link Container#awaitable(Container)}.
+     *
+     * Values are only boxed to complete futures
+     * when there are futures waiting.
+     *
+     * @param container The container to wrap.
+     * @return The new, wrapper container.
+     */
+    static DoubleContainer awaitable(final DoubleContainer container) {
+        return new DoubleContainer() {
+            // the waiters
+            final AwaitableContainer<Double> waiters = new AwaitableContainer<>(container.boxed());
+
+            @Override
+            public double getAsDouble() {
+                return container.getAsDouble();
+            }
+
+            @Override
+            public boolean isSet() {
+                return container.isSet();
+            }
+
+            @Override
+            public DoubleContainer setDouble(double val) {
+                try {
+                    container.setDouble(val);
+                } catch (Throwable t) {
+                    waiters.fail(t);
+                    Throwables.sneakyThrow(t);
+                }
+
+                if (waiters.hasWaiters())
+                    waiters.complete(val);
+                return this;
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return container.mutability();
+            }
+
+            @Override
+            public boolean canAwait() {
+                return true;
+            }
+
+            @Override
+            public CompletableFuture<Double> await(boolean listen) {
+                return waiters.await(listen);
+            }
+        };
+    }
+
+    /**
+     * Wraps the given generic container as an
+     * {@code double} container. This unboxes on every
+     * query, so prefer creating a specialized
+     * container directly if possible.
+     *
+     * @param container The container to wrap.
+     * @return The unboxing container.
+     */
+    static DoubleContainer unboxed(final Container<Double> container) {
+        return new DoubleContainer() {
+            @Override
+            public double getAsDouble() {
+                return container.get();
+            }
+
+            @Override
+            public boolean isSet() {
+                return container.isSet();
+            }
+
+            @Override
+            public DoubleContainer setDouble(double val) {
+                container.set(val);
+                return this;
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return container.mutability();
+            }
+
+            @Override
+            public boolean canAwait() {
+                return container.canAwait();
+            }
+
+            @Override
+            public CompletableFuture<Double> await(boolean listen) {
+                return container.await(listen);
+            }
+
+            @Override
+            public Container<Double> boxed() {
+                return container;
+            }
+        };
+    }
+
+    ////////////////////////////////////////////
+
+    /**
+     * Issue the value currently stored.
+     *
+     * @see Container#get()
+     * @return The value.
+     */
+    @Override
+    double getAsDouble();
+
+    /**
+     * Get if a value is currently set.
+     *
+     * @return If a value is currently set.
+     */
+    boolean isSet();
+
+    /**
+     * Set the value stored to {@code val}.
+     *
+     * @see Container#set(Object)
+     * @param val The value to set.
+     * @return This or a new instance with the new value.
+     * @throws UnsupportedOperationException If setting is unsupported.
+     */
+    DoubleContainer setDouble(double val);
+
+    /**
+     * Get this containers mutability.
+     *
+     * @return The active mutability settings.
+     */
+    Container.Mutability mutability();
+
+    /**
+     * Get the value as a result without boxing.
+     *
+     * @see Container#issue()
+     * @return The result.
+     */
+    default DoubleResult issue() {
+        // check if set
+        if (!isSet())
+            return DoubleResult.unset();
+
+        try {
+            return DoubleResult.success(getAsDouble());
+        } catch (Throwable err) {
+            return DoubleResult.failed(err);
+        }
+    }
+
+    /**
+     * Get the value if set, or return the
+     * provided fallback if absent.
+     *
+     * @param def The fallback value.
+     * @return The value.
+     */
+    default double orElse(double def) {
+        return isSet() ? getAsDouble() : def;
+    }
+
+    /**
+     * Add the provided delta to the value
+     * and return the new value. This is atomic
+     * on atomic containers, otherwise it is
+     * a plain get and set.
+     *
+     * @param delta The amount to add.
+     * @return The updated value.
+     */
+    default double addAndGet(double delta) {
+        double val = getAsDouble() + delta;
+        setDouble(val);
+        return val;
+    }
+
+    /**
+     * Set the value to {@code update} if the
+     * current value equals {@code expect}. Values
+     * are compared by their raw bits. This is
+     * atomic on atomic containers, otherwise it
+     * is a plain get and set.
+     *
+     * @param expect The expected value.
+     * @param update The new value.
+     * @return If the value was updated.
+     */
+    default boolean compareAndSet(double expect, double update) {
+        if (Double.doubleToRawLongBits(getAsDouble()) != Double.doubleToRawLongBits(expect))
+            return false;
+        setDouble(update);
+        return true;
+    }
+
+    /**
+     * Get if you can await/listen a value.
+     *
+     * @return True/false.
+     */
+    default boolean canAwait() {
+        return false;
+    }
+
+    /**
+     * Awaits a value in this container
+     * if supported.
+     *
+     * @see Container#await(boolean)
+     * @throws UnsupportedOperationException If awaiting is unsupported.
+     * @param listen If it should listen for a value,
+     *               or instead already complete if a
+     *               value is set.
+     * @return The future.
+     */
+    default CompletableFuture<Double> await(boolean listen) {
+        // check if it can be completed
+        if (!listen && isSet())
+            return CompletableFuture.completedFuture(getAsDouble());
+        // otherwise throw error
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @see DoubleContainer#await(boolean)
+     * {@code listen} is defaulted to false.
+     */
+    default CompletableFuture<Double> await() {
+        return await(false);
+    }
+
+    /**
+     * Get a boxed, generic view of this
+     * container. Reads and writes through
+     * the view go to this container.
+     *
+     * @return The boxed container view.
+     */
+    default Container<Double> boxed() {
+        final DoubleContainer self = this;
+        return new Container<>() {
+            @Override
+            public Double get() {
+                return self.getAsDouble();
+            }
+
+            @Override
+            public boolean isSet() {
+                return self.isSet();
+            }
+
+            @Override
+            public Container<Double> set(Double val) {
+                self.setDouble(val);
+                return this;
+            }
+
+            @Override
+            public Mutability mutability() {
+                return self.mutability();
+            }
+
+            @Override
+            public boolean canAwait() {
+                return self.canAwait();
+            }
+
+            @Override
+            public CompletableFuture<Double> await(boolean listen) {
+                return self.await(listen);
+            }
+        };
+    }
+
+    /* QOL Methods */
+
+    default DoubleContainer map(DoubleUnaryOperator function) {
+        return DoubleContainer.mapped(this, function);
+    }
+
+    default DoubleContainer awaitable() {
+        return awaitable(this);
+    }
+
+}
+
@@ -0,0 +1,380 @@
+package coldsrc.coldlib.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A container which caches the value produced by
+ * a supplier for a limited time, created by
+ * {@link Container#expiring(Supplier, Duration, Executor)}
+ * or {@link Container#refreshAhead(Supplier, Duration, Duration, Executor)}.
+ *
+ * Once the value is older than the refresh time a single
+ * refresh is started, on the executor if provided, while
+ * the current value keeps being served. A failed refresh
+ * never evicts the last good value, the error is kept
+ * and reported through {@link ExpiringContainer#refresh()}
+ * and {@link ExpiringContainer#lastError()}. After a failed
+ * refresh the next one is started no earlier than the
+ * refresh time later.
+ *
+ * Only when no value is present, or the value is older
+ * than the hard time to live, will callers block on
+ * the supplier, joining the refresh in progress if any.
+ *
+ * A loaded value is only stored if the container was not
+ * written since the supplier was called, so a value set or
+ * invalidated during a slow refresh is never overwritten
+ * by the older result of that refresh.
+ *
+ * @param <V> The value type.
+ */
+public final class ExpiringContainer<V> implements Container<V> {
+
+    static final VarHandle IN_FLIGHT;
+    static final VarHandle VERSION;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            IN_FLIGHT = lookup.findVarHandle(ExpiringContainer.class, "inFlight", CompletableFuture.class);
+            VERSION   = lookup.findVarHandle(ExpiringContainer.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * A loaded value with the time it was loaded at.
+     */
+    record Entry<V>(V value, long loadedAt) { }
+
+    ////////////////////////////////////////////
+
+    ExpiringContainer(Supplier<V> supplier,
+                      Duration refreshAfter,
+                      Duration ttl,
+                      Executor executor) {
+        Objects.requireNonNull(supplier, "Supplier can not be null");
+        Objects.requireNonNull(refreshAfter, "Refresh time can not be null");
+        if (ttl != null && (ttl.isNegative() || ttl.isZero()))
+            throw new IllegalArgumentException("Time to live must be positive");
+        if (refreshAfter.isNegative() || refreshAfter.isZero())
+            throw new IllegalArgumentException("Refresh time must be positive");
+        if (ttl != null && refreshAfter.compareTo(ttl) > 0)
+            throw new IllegalArgumentException("Refresh time can not exceed the time to live");
+
+        this.supplier          = supplier;
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.ttlNanos          = ttl != null ? ttl.toNanos() : Long.MAX_VALUE;
+        this.executor          = executor;
+    }
+
+    // the value loader
+    final Supplier<V> supplier;
+    // the age after which a refresh is started
+    final long refreshAfterNanos;
+    // the age after which the value can not
+    // be served anymore, max value if it can
+    // always be served while refreshing
+    final long ttlNanos;
+    // the executor to refresh on, refreshes
+    // are run inline if this is null
+    final Executor executor;
+
+    // the current entry
+    volatile Entry<V> entry;
+    // advanced by two for every replacement of
+    // the entry, odd while the entry is written
+    volatile long version;
+    // the refresh in progress or null
+    volatile CompletableFuture<Result<V>> inFlight;
+    // the error of the last refresh or null
+    volatile Throwable lastError;
+    // when the last refresh failed
+    volatile long lastFailureAt;
+
+    /* Statistics */
+    final LongAdder hits         = new LongAdder();
+    final LongAdder misses       = new LongAdder();
+    final LongAdder refreshes    = new LongAdder();
+    final LongAdder failures     = new LongAdder();
+    final LongAdder refreshNanos = new LongAdder();
+
+    @Override
+    public V get() {
+        Entry<V> e = entry;
+        if (e != null) {
+            long age = System.nanoTime() - e.loadedAt;
+            if (age < refreshAfterNanos) {
+                hits.increment();
+                return e.value;
+            }
+
+            if (age < ttlNanos) {
+                // serve the current value
+                // while refreshing
+                hits.increment();
+                scheduleRefresh();
+                return e.value;
+            }
+        }
+
+        // no value to serve
+        misses.increment();
+        return loadBlocking(e);
+    }
+
+    @Override
+    public Result<V> issue() {
+        try {
+            return Result.success(get());
+        } catch (Throwable t) {
+            return Result.failed(t);
+        }
+    }
+
+    @Override
+    public boolean isSet() {
+        return entry != null;
+    }
+
+    @Override
+    public Container<V> set(V val) {
+        replace(new Entry<>(val, System.nanoTime()));
+        return this;
+    }
+
+    @Override
+    public Mutability mutability() {
+        return Mutability.MODIFY;
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    // replace the entry if the version is still the
+    // expected one, claiming the write by making it odd
+    private boolean replace(long expected, Entry<V> e) {
+        if ((expected & 1) != 0 || !VERSION.compareAndSet(this, expected, expected + 1))
+            return false;
+        entry = e;
+        version = expected + 2;
+        return true;
+    }
+
+    // replace the entry unconditionally
+    private void replace(Entry<V> e) {
+        while (!replace(version, e))
+            Thread.onSpinWait();
+    }
+
+    // get the version once no write is in progress
+    private long stableVersion() {
+        long v;
+        while (((v = version) & 1) != 0)
+            Thread.onSpinWait();
+        return v;
+    }
+
+    /**
+     * Load the value on the calling thread, or join
+     * the refresh in progress, unless another thread
+     * replaced the provided entry in the mean time.
+     */
+    private V loadBlocking(Entry<V> seen) {
+        for (;;) {
+            Entry<V> e = entry;
+            if (e != seen && e != null)
+                return e.value;
+
+            // join the refresh in progress
+            CompletableFuture<Result<V>> f = inFlight;
+            if (f != null)
+                return f.join().orRethrow();
+
+            // load and rethrow errors
+            f = new CompletableFuture<>();
+            if (IN_FLIGHT.compareAndSet(this, null, f))
+                return runRefresh(f).orRethrow();
+        }
+    }
+
+    // load the value for the claimed refresh, then
+    // release it and complete its waiters, load()
+    // never throws as errors become failed results
+    private Result<V> runRefresh(CompletableFuture<Result<V>> f) {
+        Result<V> result = load();
+        inFlight = null;
+        f.complete(result);
+        return result;
+    }
+
+    /**
+     * Call the supplier and store the value if
+     * successful and the container was not written
+     * in the mean time, recording the statistics.
+     */
+    private Result<V> load() {
+        long start = System.nanoTime();
+        long seen = stableVersion();
+        try {
+            V val = supplier.get();
+            replace(seen, new Entry<>(val, System.nanoTime()));
+            lastError = null;
+            return Result.success(val);
+        } catch (Throwable t) {
+            failures.increment();
+            lastFailureAt = System.nanoTime();
+            lastError = t;
+            return Result.failed(t);
+        } finally {
+            refreshes.increment();
+            refreshNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Start a refresh if none is in progress, and
+     * the last one did not fail within the refresh time.
+     */
+    private void scheduleRefresh() {
+        if (inFlight != null)
+            return;
+        // back off after a failure instead of
+        // retrying on every query
+        if (lastError != null && System.nanoTime() - lastFailureAt < refreshAfterNanos)
+            return;
+        CompletableFuture<Result<V>> f = new CompletableFuture<>();
+        if (!IN_FLIGHT.compareAndSet(this, null, f))
+            return;
+
+        if (executor == null) {
+            runRefresh(f);
+            return;
+        }
+
+        try {
+            executor.execute(() -> runRefresh(f));
+        } catch (RejectedExecutionException e) {
+            inFlight = null;
+            f.complete(Result.failed(e));
+        }
+    }
+
+    /**
+     * Refresh the value on the calling thread.
+     * If the refresh fails, the current value is
+     * kept and a failed result is returned.
+     *
+     * @return The result of the refresh.
+     */
+    public Result<V> refresh() {
+        return load();
+    }
+
+    /**
+     * Refresh the value on the executor, or on
+     * the calling thread if no executor is set.
+     *
+     * @see ExpiringContainer#refresh()
+     * @return The future result of the refresh.
+     */
+    public CompletableFuture<Result<V>> refreshAsync() {
+        if (executor == null)
+            return CompletableFuture.completedFuture(load());
+        return CompletableFuture.supplyAsync(this::load, executor);
+    }
+
+    /**
+     * Remove the current value, the next
+     * query will load it again.
+     */
+    public void invalidate() {
+        replace(null);
+    }
+
+    /**
+     * Get the error thrown by the last refresh,
+     * or null if it was successful.
+     *
+     * @return The error or null.
+     */
+    public Throwable lastError() {
+        return lastError;
+    }
+
+    /* Getters */
+
+    /**
+     * Get the amount of queries which were
+     * served a cached value, including stale
+     * values served while refreshing.
+     *
+     * @return The hit count.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the amount of queries which had
+     * to wait for the value to be loaded.
+     *
+     * @return The miss count.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the amount of times the supplier
+     * has been called, including failures.
+     *
+     * @return The refresh count.
+     */
+    public long refreshCount() {
+        return refreshes.sum();
+    }
+
+    /**
+     * Get the amount of times the
+     * supplier has thrown an error.
+     *
+     * @return The failure count.
+     */
+    public long failureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Get the total time spent in the
+     * supplier in nanoseconds.
+     *
+     * @return The total refresh time.
+     */
+    public long totalRefreshNanos() {
+        return refreshNanos.sum();
+    }
+
+    /**
+     * Get the average time spent in the
+     * supplier per call in nanoseconds.
+     *
+     * @return The average refresh time or 0.
+     */
+    public long averageRefreshNanos() {
+        long count = refreshes.sum();
+        return count == 0 ? 0 : refreshNanos.sum() / count;
+    }
+
+}
@@ -0,0 +1,359 @@
+package coldsrc.coldlib.util;
+
+import coldsrc.coldlib.util.functional.Callable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * A container holding the parsed contents of a file,
+ * which is reloaded when the file changes on disk, created
+ * by {@link Container#fileBacked(Path, Parser, Executor)}.
+ *
+ * Changes are detected by a shared watcher thread, and the
+ * file is read and parsed on the executor, never on the
+ * querying thread, after which the value is swapped in
+ * atomically. Querying the value is a single volatile read.
+ * Only when the value is queried before the first load has
+ * finished will the caller wait for it.
+ *
+ * If reading or parsing fails the previous value is kept,
+ * and the error is reported through {@link FileBackedContainer#lastResult()}
+ * and the reload listeners. Successfully loaded values
+ * complete the futures returned by {@link Container#await(boolean)}.
+ *
+ * The container should be closed when no longer needed
+ * to stop watching the file.
+ *
+ * @param <V> The value type.
+ */
+public final class FileBackedContainer<V> implements Container<V>, AutoCloseable {
+
+    static final VarHandle PENDING;
+
+    static {
+        try {
+            PENDING = MethodHandles.lookup().findVarHandle(FileBackedContainer.class, "pending", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** The value marker before the first successful load. */
+    static final Object UNLOADED = new Object();
+
+    /**
+     * Reads a value from a file.
+     *
+     * @param <V> The value type.
+     */
+    @FunctionalInterface
+    public interface Parser<V> {
+
+        /**
+         * Create a parser reading the file
+         * as UTF-8 text and parsing the text
+         * with the provided function.
+         *
+         * @param function The text parser.
+         * @param <V> The value type.
+         * @return The parser.
+         */
+        static <V> Parser<V> text(Function<String, V> function) {
+            Objects.requireNonNull(function, "Function can not be null");
+            return path -> function.apply(Files.readString(path));
+        }
+
+        /**
+         * Read and parse the file.
+         *
+         * @param path The file.
+         * @return The value.
+         * @throws Exception If reading or parsing failed.
+         */
+        V parse(Path path) throws Exception;
+
+    }
+
+    ////////////////////////////////////////////
+
+    FileBackedContainer(Path path, Parser<V> parser, Executor executor) {
+        Objects.requireNonNull(path, "Path can not be null");
+        this.path     = path.toAbsolutePath().normalize();
+        this.fileName = this.path.getFileName();
+        this.parser   = Objects.requireNonNull(parser, "Parser can not be null");
+        this.executor = Objects.requireNonNull(executor, "Executor can not be null");
+        if (this.fileName == null || this.path.getParent() == null)
+            throw new IllegalArgumentException("Path " + path + " does not denote a file");
+
+        // start watching before the first
+        // load so no change is missed
+        this.watcher = FileWatcher.forPath(this.path);
+        try {
+            watcher.register(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not watch " + this.path, e);
+        }
+
+        // start the initial load
+        this.initial = reloadAsync();
+    }
+
+    // the watched file
+    final Path path;
+    // the file name in the directory
+    final Path fileName;
+    // the file parser
+    final Parser<V> parser;
+    // the executor to parse on
+    final Executor executor;
+    // the watcher notifying this container
+    final FileWatcher watcher;
+
+    // the current value, or the unloaded marker
+    volatile Object value = UNLOADED;
+    // the outcome of the last load
+    volatile Result<V> lastResult = Result.unset();
+    // the amount of successful loads
+    volatile long version;
+    // if a reload has been scheduled but not started
+    volatile boolean pending;
+    // if this container was closed
+    volatile boolean closed;
+
+    // the initial load
+    final CompletableFuture<Result<V>> initial;
+    // completes the futures awaiting values
+    final AwaitableContainer<V> awaitable = new AwaitableContainer<>(this);
+    // the reload listeners
+    final List<Callable<? super Result<V>>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Called by the watcher when the file changed, schedules a
+     * reload unless one is already waiting to start. Bursts of
+     * events, like an editor saving in multiple writes, are
+     * coalesced into a single reload.
+     */
+    void changed() {
+        if (closed || pending || !PENDING.compareAndSet(this, false, true))
+            return;
+
+        try {
+            executor.execute(() -> {
+                pending = false;
+                reload();
+            });
+        } catch (RejectedExecutionException e) {
+            pending = false;
+        }
+    }
+
+    /**
+     * Called by the watcher when the directory of the
+     * file could not be watched anymore, for example as
+     * it was deleted. The last value is kept, and the
+     * failure is passed to the listeners. The watcher
+     * reloads this container once the directory exists again.
+     */
+    void watchFailed(IOException e) {
+        if (closed)
+            return;
+
+        Result<V> result = Result.failed(new IOException(
+                "Lost watch of " + path.getParent() + ", retrying", e));
+        lastResult = result;
+        notifyListeners(result);
+    }
+
+    /**
+     * Read and parse the file on the calling thread,
+     * swapping in the new value if successful. Loads
+     * are serialized, so an older file state never
+     * replaces a newer one. Listeners are notified
+     * after the load, outside of the container lock.
+     *
+     * @return The outcome of the load.
+     */
+    public Result<V> reload() {
+        Result<V> result = load();
+        notifyListeners(result);
+
+        if (result.isPresent())
+            awaitable.complete(result.value);
+        return result;
+    }
+
+    // load the file, serialized
+    private synchronized Result<V> load() {
+        Result<V> result;
+        try {
+            V val = parser.parse(path);
+            value = val;
+            version++;
+            result = Result.success(val);
+        } catch (Throwable t) {
+            // keep the previous value
+            result = Result.failed(t);
+        }
+
+        lastResult = result;
+        return result;
+    }
+
+    // call the listeners with the outcome
+    void notifyListeners(Result<V> result) {
+        for (Callable<? super Result<V>> listener : listeners) {
+            try {
+                listener.call(result);
+            } catch (Throwable ignored) {
+                // one listener should not break the others
+            }
+        }
+    }
+
+    /**
+     * Read and parse the file on the executor.
+     *
+     * @see FileBackedContainer#reload()
+     * @return The future outcome of the load.
+     */
+    public CompletableFuture<Result<V>> reloadAsync() {
+        try {
+            return CompletableFuture.supplyAsync(this::reload, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(Result.failed(e));
+        }
+    }
+
+    /**
+     * Register a listener called with the outcome of every
+     * load, on the thread which performed it. Failed loads
+     * are passed as failed results. Listeners of overlapping
+     * reloads may be called concurrently.
+     *
+     * @param listener The listener, for example a {@link coldsrc.coldlib.util.functional.Callback}.
+     * @return This.
+     */
+    public FileBackedContainer<V> onReload(Callable<? super Result<V>> listener) {
+        listeners.add(Objects.requireNonNull(listener, "Listener can not be null"));
+        return this;
+    }
+
+    /**
+     * Remove a registered reload listener.
+     *
+     * @param listener The listener.
+     * @return This.
+     */
+    public FileBackedContainer<V> removeListener(Callable<? super Result<V>> listener) {
+        listeners.remove(listener);
+        return this;
+    }
+
+    /**
+     * Get the outcome of the last load. If this
+     * is failed the container still holds the
+     * last successfully loaded value, if any.
+     *
+     * @return The last result.
+     */
+    public Result<V> lastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Get the watched file.
+     *
+     * @return The path.
+     */
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Stop watching the file. The last
+     * value stays available.
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        watcher.unregister(this);
+    }
+
+    /**
+     * Get if this container was closed.
+     *
+     * @return True/false.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get() {
+        Object v = value;
+        if (v != UNLOADED)
+            return (V) v;
+
+        // wait for the initial load
+        initial.join();
+        v = value;
+        if (v != UNLOADED)
+            return (V) v;
+        return lastResult.unwrap();
+    }
+
+    @Override
+    public boolean isSet() {
+        return value != UNLOADED;
+    }
+
+    @Override
+    public Container<V> set(V val) {
+        throw new UnsupportedOperationException("File backed containers can only be reloaded");
+    }
+
+    @Override
+    public Mutability mutability() {
+        return Mutability.UNSUPPORTED;
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public boolean canAwait() {
+        return true;
+    }
+
+    /**
+     * Await a loaded value. With {@code listen} the
+     * future is completed by the next successful load,
+     * otherwise it is completed immediately if a value
+     * has been loaded already.
+     *
+     * @param listen Whether to wait for the next load.
+     * @return The future.
+     */
+    @Override
+    public CompletableFuture<V> await(boolean listen) {
+        return awaitable.await(listen);
+    }
+
+}
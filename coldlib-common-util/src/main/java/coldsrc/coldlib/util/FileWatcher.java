@@ -0,0 +1,232 @@
+package coldsrc.coldlib.util;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the directories of {@link FileBackedContainer}s
+ * for changes. There is one watcher with a single daemon
+ * thread per file system, shared by all containers, which
+ * only notifies the containers and never reads files itself.
+ *
+ * When a watched directory is deleted its containers are
+ * notified of the failure, and the directory is registered
+ * again once it is recreated, reloading its containers.
+ */
+final class FileWatcher implements Runnable {
+
+    /** The watchers by file system. */
+    static final Map<FileSystem, FileWatcher> WATCHERS = new ConcurrentHashMap<>();
+
+    /** How often to try watching deleted directories again. */
+    static final long RETRY_MILLIS = 1000;
+
+    /**
+     * Get or create the watcher for the
+     * file system of the provided path.
+     *
+     * @param path The path.
+     * @return The watcher.
+     */
+    static FileWatcher forPath(Path path) {
+        return WATCHERS.computeIfAbsent(path.getFileSystem(), fs -> {
+            try {
+                return new FileWatcher(fs.newWatchService());
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not create watch service for " + fs, e);
+            }
+        });
+    }
+
+    /**
+     * A watched directory.
+     */
+    record Directory(WatchKey key, Set<FileBackedContainer<?>> containers) { }
+
+    ////////////////////////////////////////////
+
+    FileWatcher(WatchService service) {
+        this.service = service;
+
+        // start the watcher thread
+        Thread thread = new Thread(this, "coldlib-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // the watch service
+    final WatchService service;
+
+    // the watched directories
+    final Map<Path, Directory> directories = new ConcurrentHashMap<>();
+    // the directories which could not be watched
+    // anymore, with a null key, guarded by this
+    final Map<Path, Directory> lost = new HashMap<>();
+
+    /**
+     * Start watching the file of the provided container.
+     *
+     * @param container The container.
+     * @throws IOException If registering the directory failed.
+     */
+    synchronized void register(FileBackedContainer<?> container) throws IOException {
+        Path dir = container.path.getParent();
+        Directory directory = directories.get(dir);
+        if (directory == null) {
+            WatchKey key = watch(dir);
+
+            // the directory was recreated before the
+            // retry, take over its lost containers
+            Directory gone = lost.remove(dir);
+            directory = new Directory(key, gone != null ? gone.containers() : new CopyOnWriteArraySet<>());
+            directories.put(dir, directory);
+            if (gone != null)
+                for (FileBackedContainer<?> other : gone.containers())
+                    other.changed();
+        }
+
+        directory.containers().add(container);
+    }
+
+    /**
+     * Stop watching the file of the provided container.
+     *
+     * @param container The container.
+     */
+    synchronized void unregister(FileBackedContainer<?> container) {
+        Path dir = container.path.getParent();
+        Directory directory = directories.get(dir);
+        if (directory == null) {
+            directory = lost.get(dir);
+            if (directory != null && directory.containers().remove(container) &&
+                    directory.containers().isEmpty())
+                lost.remove(dir);
+            return;
+        }
+
+        // stop watching unused directories
+        directory.containers().remove(container);
+        if (directory.containers().isEmpty()) {
+            directory.key().cancel();
+            directories.remove(dir);
+        }
+    }
+
+    // register the directory with the watch service
+    private WatchKey watch(Path dir) throws IOException {
+        return dir.register(service,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    /**
+     * Called when the key of the directory became
+     * invalid, trying to watch it again immediately
+     * and otherwise marking it as lost.
+     */
+    private synchronized void invalidated(Path dir, Directory directory) {
+        if (!directories.remove(dir, directory))
+            return;
+
+        Directory fresh = new Directory(null, directory.containers());
+        try {
+            rewatch(dir, fresh);
+        } catch (IOException e) {
+            lost.put(dir, fresh);
+            for (FileBackedContainer<?> container : fresh.containers())
+                container.watchFailed(e);
+        }
+    }
+
+    /**
+     * Try to watch the lost directories again.
+     */
+    private synchronized void retryLost() {
+        for (Iterator<Map.Entry<Path, Directory>> it = lost.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Path, Directory> entry = it.next();
+            try {
+                rewatch(entry.getKey(), entry.getValue());
+                it.remove();
+            } catch (IOException ignored) {
+                // still missing
+            }
+        }
+    }
+
+    // watch the directory again, reloading the containers
+    // as the file may have changed while unwatched
+    private void rewatch(Path dir, Directory directory) throws IOException {
+        directories.put(dir, new Directory(watch(dir), directory.containers()));
+        for (FileBackedContainer<?> container : directory.containers())
+            container.changed();
+    }
+
+    @Override
+    public void run() {
+        long lastRetry = System.nanoTime();
+        for (;;) {
+            WatchKey key;
+            try {
+                boolean hasLost;
+                synchronized (this) {
+                    hasLost = !lost.isEmpty();
+                }
+
+                if (hasLost) {
+                    // poll so lost directories are retried
+                    if (System.nanoTime() - lastRetry >= TimeUnit.MILLISECONDS.toNanos(RETRY_MILLIS)) {
+                        lastRetry = System.nanoTime();
+                        retryLost();
+                    }
+
+                    key = service.poll(RETRY_MILLIS, TimeUnit.MILLISECONDS);
+                    if (key == null)
+                        continue;
+                } else {
+                    key = service.take();
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path dir = (Path) key.watchable();
+            Directory directory = directories.get(dir);
+            if (directory != null && directory.key() == key) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    // events were lost, notify everything
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        for (FileBackedContainer<?> container : directory.containers())
+                            container.changed();
+                        continue;
+                    }
+
+                    Path name = (Path) event.context();
+                    for (FileBackedContainer<?> container : directory.containers())
+                        if (container.fileName.equals(name))
+                            container.changed();
+                }
+            } else {
+                key.pollEvents();
+                directory = null;
+            }
+
+            // the directory was deleted or unregistered
+            if (!key.reset() && directory != null)
+                invalidated(dir, directory);
+        }
+    }
+
+}
@@ -0,0 +1,563 @@
+package coldsrc.coldlib.util;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * A {@link Container} specialized for {@code int}
+ * values. The primitive accessors never box, a boxed
+ * {@link Container} view can be obtained through
+ * {@link IntContainer#boxed()} when needed.
+ *
+ * This class extends {@link IntSupplier} for inter-op.
+ */
+public interface IntContainer extends IntSupplier {
+
+    /**
+     * Create a new immutable container
+     * with the value already set.
+     *
+     * @param value The final value.
+     * @return The container instance.
+     */
+    static IntContainer finalImmutable(final int value) {
+        // return new container
+        return new IntContainer() {
+            @Override
+            public int getAsInt() {
+                return value;
+            }
+
+            @Override
+            public boolean isSet() {
+                return true;
+            }
+
+            @Override
+            public IntContainer setInt(int val) {
+                throw new UnsupportedOperationException("Container is immutable");
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return Container.Mutability.UNSUPPORTED;
+            }
+        };
+    }
+
+    /**
+     * Create a new mutable container instance
+     * with the value pre-set.
+     *
+     * @param val The value to pre-set.
+     * @return The container instance.
+     */
+    static IntContainer mutable(final int val) {
+        // return new container
+        return new IntContainer() {
+            // the value currently stored
+            int value = val;
+
+            @Override
+            public int getAsInt() {
+                return value;
+            }
+
+            @Override
+            public boolean isSet() {
+                return true;
+            }
+
+            @Override
+            public IntContainer setInt(int val) {
+                value = val;
+                return this;
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return Container.Mutability.MODIFY;
+            }
+        };
+    }
+
+    /**
+     * Create a new mutable container instance
+     * with the value pre-set to {@code 0}.
+     *
+     * @return The container instance.
+     */
+    static IntContainer mutable() {
+        return mutable(0);
+    }
+
+    /**
+     * A mutable container which stores the current
+     * value in a volatile field, updated atomically
+     * making it thread safe. It starts at zero and
+     * is always set.
+     *
+     * @return The atomic container instance.
+     */
+    static IntContainer atomic() {
+        return new AtomicIntContainer(0);
+    }
+
+    /**
+     * A mutable container which stores the current
+     * value in a volatile field, updated atomically
+     * making it thread safe.
+     *
+     * @param val The value to pre-set.
+     * @return The atomic container instance.
+     */
+    static IntContainer atomic(int val) {
+        return new AtomicIntContainer(val);
+    }
+
+    /**
+     * Create a new container which lazy loads
+     * the value using the provided supplier when
+     * it is first queried, using {@link Container.LazyMode#SYNCHRONIZED}.
+     *
+     * This container is immutable.
+     *
+     * @param supplier The lazy loader.
+     * @return The lazy loaded container instance.
+     */
+    static IntContainer lazy(IntSupplier supplier) {
+        return lazy(Container.LazyMode.SYNCHRONIZED, supplier);
+    }
+
+    /**
+     * Create a new container which lazy loads
+     * the value using the provided supplier when
+     * it is first queried, synchronizing the load
+     * as specified by the provided mode.
+     *
+     * This container is immutable.
+     *
+     * @param mode The thread safety mode.
+     * @param supplier The lazy loader.
+     * @return The lazy loaded container instance.
+     */
+    static IntContainer lazy(final Container.LazyMode mode,
+                             final IntSupplier supplier) {
+        Objects.requireNonNull(mode, "Lazy mode can not be null");
+        Objects.requireNonNull(supplier, "Supplier can not be null");
+        if (mode == Container.LazyMode.PUBLICATION)
+            return new LazyPublication.OfInt(supplier);
+        return new IntContainer() {
+            // if the value has been loaded, the
+            // volatile write publishes the value
+            volatile boolean initialized;
+            // the cached value
+            int value;
+
+            @Override
+            public int getAsInt() {
+                if (initialized)
+                    return value;
+
+                switch (mode) {
+                    case NONE -> {
+                        value = supplier.getAsInt();
+                        initialized = true;
+                    }
+
+                    case SYNCHRONIZED -> {
+                        synchronized (this) {
+                            if (!initialized) {
+                                value = supplier.getAsInt();
+                                initialized = true;
+                            }
+                        }
+                    }
+                }
+
+                return value;
+            }
+
+            @Override
+            public boolean isSet() {
+                return true;
+            }
+
+            @Override
+            public IntContainer setInt(int val) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return Container.Mutability.UNSUPPORTED;
+            }
+        };
+    }
+
+    /**
+     * Wraps the given container with the provided
+     * mapping function to return an immutable container
+     * which maps the queried value.
+     *
+     * @param container The container to wrap.
+     * @param function The mapper.
+     * @return The mapping container.
+     */
+    static IntContainer mapped(final IntContainer container,
+                               final IntUnaryOperator function) {
+        return new IntContainer() {
+            @Override
+            public int getAsInt() {
+                return function.applyAsInt(container.getAsInt());
+            }
+
+            @Override
+            public boolean isSet() {
+                return container.isSet();
+            }
+
+            @Override
+            public IntContainer setInt(int val) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return Container.Mutability.UNSUPPORTED;
+            }
+        };
+    }
+
+    /**
+     * Wraps the given generic container with the provided
+     * mapping function to return an immutable container
+     * which maps the queried value of type {@code V} to
+     * an {@code int}.
+     *
+     * @param container The container to wrap.
+     * @param function The V -> int mapper.
+     * @param <V> The original value type.
+     * @return The mapping container.
+     */
+    static <V> IntContainer mapped(final Container<V> container,
+                                   final ToIntFunction<V> function) {
+        return new IntContainer() {
+            @Override
+            public int getAsInt() {
+                return function.applyAsInt(container.get());
+            }
+
+            @Override
+            public boolean isSet() {
+                return container.isSet();
+            }
+
+            @Override
+            public IntContainer setInt(int val) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return Container.Mutability.UNSUPPORTED;
+            }
+        };
+    }
+
+    /**
+     * Create a new container wrapping the
+     * provided container to introduce awaiting
+     * functionality, like {@link Container#awaitable(Container)}.
+     *
+     * Values are only boxed to complete futures
+     * when there are futures waiting.
+     *
+     * @param container The container to wrap.
+     * @return The new, wrapper container.
+     */
+    static IntContainer awaitable(final IntContainer container) {
+        return new IntContainer() {
+            // the waiters
+            final AwaitableContainer<Integer> waiters = new AwaitableContainer<>(container.boxed());
+
+            @Override
+            public int getAsInt() {
+                return container.getAsInt();
+            }
+
+            @Override
+            public boolean isSet() {
+                return container.isSet();
+            }
+
+            @Override
+            public IntContainer setInt(int val) {
+                try {
+                    container.setInt(val);
+                } catch (Throwable t) {
+                    waiters.fail(t);
+                    Throwables.sneakyThrow(t);
+                }
+
+                if (waiters.hasWaiters())
+                    waiters.complete(val);
+                return this;
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return container.mutability();
+            }
+
+            @Override
+            public boolean canAwait() {
+                return true;
+            }
+
+            @Override
+            public CompletableFuture<Integer> await(boolean listen) {
+                return waiters.await(listen);
+            }
+        };
+    }
+
+    /**
+     * Wraps the given generic container as an
+     * {@code int} container. This unboxes on every
+     * query, so prefer creating a specialized
+     * container directly if possible.
+     *
+     * @param container The container to wrap.
+     * @return The unboxing container.
+     */
+    static IntContainer unboxed(final Container<Integer> container) {
+        return new IntContainer() {
+            @Override
+            public int getAsInt() {
+                return container.get();
+            }
+
+            @Override
+            public boolean isSet() {
+                return container.isSet();
+            }
+
+            @Override
+            public IntContainer setInt(int val) {
+                container.set(val);
+                return this;
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return container.mutability();
+            }
+
+            @Override
+            public boolean canAwait() {
+                return container.canAwait();
+            }
+
+            @Override
+            public CompletableFuture<Integer> await(boolean listen) {
+                return container.await(listen);
+            }
+
+            @Override
+            public Container<Integer> boxed() {
+                return container;
+            }
+        };
+    }
+
+    ////////////////////////////////////////////
+
+    /**
+     * Issue the value currently stored.
+     *
+     * @see Container#get()
+     * @return The value.
+     */
+    @Override
+    int getAsInt();
+
+    /**
+     * Get if a value is currently set.
+     *
+     * @return If a value is currently set.
+     */
+    boolean isSet();
+
+    /**
+     * Set the value stored to {@code val}.
+     *
+     * @see Container#set(Object)
+     * @param val The value to set.
+     * @return This or a new instance with the new value.
+     * @throws UnsupportedOperationException If setting is unsupported.
+     */
+    IntContainer setInt(int val);
+
+    /**
+     * Get this containers mutability.
+     *
+     * @return The active mutability settings.
+     */
+    Container.Mutability mutability();
+
+    /**
+     * Get the value as a result without boxing.
+     *
+     * @see Container#issue()
+     * @return The result.
+     */
+    default IntResult issue() {
+        // check if set
+        if (!isSet())
+            return IntResult.unset();
+
+        try {
+            return IntResult.success(getAsInt());
+        } catch (Throwable err) {
+            return IntResult.failed(err);
+        }
+    }
+
+    /**
+     * Get the value if set, or return the
+     * provided fallback if absent.
+     *
+     * @param def The fallback value.
+     * @return The value.
+     */
+    default int orElse(int def) {
+        return isSet() ? getAsInt() : def;
+    }
+
+    /**
+     * Add the provided delta to the value
+     * and return the new value. This is atomic
+     * on atomic containers, otherwise it is
+     * a plain get and set.
+     *
+     * @param delta The amount to add.
+     * @return The updated value.
+     */
+    default int addAndGet(int delta) {
+        int val = getAsInt() + delta;
+        setInt(val);
+        return val;
+    }
+
+    /**
+     * Set the value to {@code update} if the
+     * current value equals {@code expect}. This is
+     * atomic on atomic containers, otherwise it
+     * is a plain get and set.
+     *
+     * @param expect The expected value.
+     * @param update The new value.
+     * @return If the value was updated.
+     */
+    default boolean compareAndSet(int expect, int update) {
+        if (getAsInt() != expect)
+            return false;
+        setInt(update);
+        return true;
+    }
+
+    /**
+     * Get if you can await/listen a value.
+     *
+     * @return True/false.
+     */
+    default boolean canAwait() {
+        return false;
+    }
+
+    /**
+     * Awaits a value in this container
+     * if supported.
+     *
+     * @see Container#await(boolean)
+     * @throws UnsupportedOperationException If awaiting is unsupported.
+     * @param listen If it should listen for a value,
+     *               or instead already complete if a
+     *               value is set.
+     * @return The future.
+     */
+    default CompletableFuture<Integer> await(boolean listen) {
+        // check if it can be completed
+        if (!listen && isSet())
+            return CompletableFuture.completedFuture(getAsInt());
+        // otherwise throw error
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @see IntContainer#await(boolean)
+     * {@code listen} is defaulted to false.
+     */
+    default CompletableFuture<Integer> await() {
+        return await(false);
+    }
+
+    /**
+     * Get a boxed, generic view of this
+     * container. Reads and writes through
+     * the view go to this container.
+     *
+     * @return The boxed container view.
+     */
+    default Container<Integer> boxed() {
+        final IntContainer self = this;
+        return new Container<>() {
+            @Override
+            public Integer get() {
+                return self.getAsInt();
+            }
+
+            @Override
+            public boolean isSet() {
+                return self.isSet();
+            }
+
+            @Override
+            public Container<Integer> set(Integer val) {
+                self.setInt(val);
+                return this;
+            }
+
+            @Override
+            public Mutability mutability() {
+                return self.mutability();
+            }
+
+            @Override
+            public boolean canAwait() {
+                return self.canAwait();
+            }
+
+            @Override
+            public CompletableFuture<Integer> await(boolean listen) {
+                return self.await(listen);
+            }
+        };
+    }
+
+    /* QOL Methods */
+
+    default IntContainer map(IntUnaryOperator function) {
+        return IntContainer.mapped(this, function);
+    }
+
+    default IntContainer awaitable() {
+        return awaitable(this);
+    }
+
+}
+
@@ -0,0 +1,205 @@
+package coldsrc.coldlib.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Base for the lazy loading containers
+ * created by {@link Container#lazy(Container.LazyMode, Supplier)}.
+ *
+ * The value is stored in a single field which
+ * holds {@link LazyContainer#UNINITIALIZED} until
+ * the supplier has been called, so after initialization
+ * the hot {@link Container#get()} path is just one read.
+ *
+ * @param <V> The value type.
+ */
+abstract class LazyContainer<V> implements Container<V> {
+
+    /** Marker for the value not being loaded yet. */
+    static final Object UNINITIALIZED = new Object();
+
+    /**
+     * Create a new lazy container for the
+     * provided mode and loader.
+     *
+     * @param mode The thread safety mode.
+     * @param supplier The lazy loader.
+     * @param <V> The value type.
+     * @return The container instance.
+     */
+    static <V> LazyContainer<V> create(Container.LazyMode mode,
+                                       Supplier<V> supplier) {
+        Objects.requireNonNull(mode, "Lazy mode can not be null");
+        Objects.requireNonNull(supplier, "Supplier can not be null");
+        return switch (mode) {
+            case SYNCHRONIZED -> new Synchronized<>(supplier);
+            case PUBLICATION  -> new Publication<>(supplier);
+            case NONE         -> new Unsynchronized<>(supplier);
+        };
+    }
+
+    ////////////////////////////////////////////
+
+    /**
+     * Get if the value has been loaded yet.
+     * This will not trigger loading.
+     *
+     * @return If the value has been loaded.
+     */
+    abstract boolean isInitialized();
+
+    @Override
+    public boolean isSet() {
+        return true;
+    }
+
+    @Override
+    public Container<V> set(V val) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Mutability mutability() {
+        return Mutability.UNSUPPORTED;
+    }
+
+    @Override
+    public long version() {
+        return 0;
+    }
+
+    /**
+     * @see Container.LazyMode#SYNCHRONIZED
+     */
+    static final class Synchronized<V> extends LazyContainer<V> {
+
+        // the loader, released after loading
+        Supplier<V> supplier;
+        // the value or UNINITIALIZED
+        volatile Object value = UNINITIALIZED;
+
+        Synchronized(Supplier<V> supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get() {
+            // fast path, already loaded
+            Object v = value;
+            if (v != UNINITIALIZED)
+                return (V) v;
+
+            synchronized (this) {
+                // check again under the lock
+                v = value;
+                if (v == UNINITIALIZED) {
+                    v = supplier.get();
+                    value = v;
+                    supplier = null;
+                }
+
+                return (V) v;
+            }
+        }
+
+        @Override
+        boolean isInitialized() {
+            return value != UNINITIALIZED;
+        }
+
+    }
+
+    /**
+     * @see Container.LazyMode#PUBLICATION
+     */
+    static final class Publication<V> extends LazyContainer<V> {
+
+        static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(Publication.class, "value", Object.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        // the loader, released after loading
+        volatile Supplier<V> supplier;
+        // the value or UNINITIALIZED
+        volatile Object value = UNINITIALIZED;
+
+        Publication(Supplier<V> supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get() {
+            // fast path, already loaded
+            Object v = value;
+            if (v != UNINITIALIZED)
+                return (V) v;
+
+            // the supplier may have been released
+            // by a thread which just published
+            Supplier<V> s = supplier;
+            if (s == null)
+                return (V) value;
+
+            // compute and try to publish, the
+            // first value published wins
+            Object computed = s.get();
+            if (VALUE.compareAndSet(this, UNINITIALIZED, computed)) {
+                supplier = null;
+                return (V) computed;
+            }
+
+            return (V) value;
+        }
+
+        @Override
+        boolean isInitialized() {
+            return value != UNINITIALIZED;
+        }
+
+    }
+
+    /**
+     * @see Container.LazyMode#NONE
+     */
+    static final class Unsynchronized<V> extends LazyContainer<V> {
+
+        // the loader, released after loading
+        Supplier<V> supplier;
+        // the value or UNINITIALIZED
+        Object value = UNINITIALIZED;
+
+        Unsynchronized(Supplier<V> supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get() {
+            Object v = value;
+            if (v == UNINITIALIZED) {
+                value = v = supplier.get();
+                supplier = null;
+            }
+
+            return (V) v;
+        }
+
+        @Override
+        boolean isInitialized() {
+            return value != UNINITIALIZED;
+        }
+
+    }
+
+}
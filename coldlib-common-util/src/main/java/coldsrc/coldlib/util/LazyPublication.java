@@ -0,0 +1,227 @@
+package coldsrc.coldlib.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * The primitive lazy containers using {@link Container.LazyMode#PUBLICATION},
+ * created by {@link IntContainer#lazy(Container.LazyMode, IntSupplier)} and
+ * the long and double variants.
+ *
+ * The supplier is called without locking, possibly by
+ * multiple threads at once. The first thread to claim the
+ * state word by compare-and-exchange publishes its value,
+ * the values of other threads are discarded. Threads which
+ * lose the claim only wait for the winner to store the value,
+ * never for a supplier call.
+ */
+final class LazyPublication {
+
+    // static utility class
+    // no instantiating
+    private LazyPublication() { }
+
+    // the states of the state word
+    static final int UNSET = 0;
+    static final int PUBLISHING = 1;
+    static final int DONE = 2;
+
+    // wait for the winner to finish publishing
+    static void awaitDone(VarHandle handle, Object container) {
+        while ((int) handle.getAcquire(container) != DONE)
+            Thread.onSpinWait();
+    }
+
+    /**
+     * @see IntContainer#lazy(Container.LazyMode, IntSupplier)
+     */
+    static final class OfInt implements IntContainer {
+
+        static final VarHandle STATE;
+
+        static {
+            try {
+                STATE = MethodHandles.lookup().findVarHandle(OfInt.class, "state", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        OfInt(IntSupplier supplier) {
+            this.supplier = supplier;
+        }
+
+        // the loader, released after loading
+        volatile IntSupplier supplier;
+        // the state, the write of DONE publishes the value
+        volatile int state;
+        // the cached value
+        int value;
+
+        @Override
+        public int getAsInt() {
+            if (state == DONE)
+                return value;
+
+            IntSupplier s = supplier;
+            if (s != null) {
+                int computed = s.getAsInt();
+                if ((int) STATE.compareAndExchange(this, UNSET, PUBLISHING) == UNSET) {
+                    value = computed;
+                    supplier = null;
+                    state = DONE;
+                    return computed;
+                }
+            }
+
+            awaitDone(STATE, this);
+            return value;
+        }
+
+        @Override
+        public boolean isSet() {
+            return true;
+        }
+
+        @Override
+        public IntContainer setInt(int val) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Container.Mutability mutability() {
+            return Container.Mutability.UNSUPPORTED;
+        }
+
+    }
+
+    /**
+     * @see LongContainer#lazy(Container.LazyMode, LongSupplier)
+     */
+    static final class OfLong implements LongContainer {
+
+        static final VarHandle STATE;
+
+        static {
+            try {
+                STATE = MethodHandles.lookup().findVarHandle(OfLong.class, "state", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        OfLong(LongSupplier supplier) {
+            this.supplier = supplier;
+        }
+
+        // the loader, released after loading
+        volatile LongSupplier supplier;
+        // the state, the write of DONE publishes the value
+        volatile int state;
+        // the cached value
+        long value;
+
+        @Override
+        public long getAsLong() {
+            if (state == DONE)
+                return value;
+
+            LongSupplier s = supplier;
+            if (s != null) {
+                long computed = s.getAsLong();
+                if ((int) STATE.compareAndExchange(this, UNSET, PUBLISHING) == UNSET) {
+                    value = computed;
+                    supplier = null;
+                    state = DONE;
+                    return computed;
+                }
+            }
+
+            awaitDone(STATE, this);
+            return value;
+        }
+
+        @Override
+        public boolean isSet() {
+            return true;
+        }
+
+        @Override
+        public LongContainer setLong(long val) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Container.Mutability mutability() {
+            return Container.Mutability.UNSUPPORTED;
+        }
+
+    }
+
+    /**
+     * @see DoubleContainer#lazy(Container.LazyMode, DoubleSupplier)
+     */
+    static final class OfDouble implements DoubleContainer {
+
+        static final VarHandle STATE;
+
+        static {
+            try {
+                STATE = MethodHandles.lookup().findVarHandle(OfDouble.class, "state", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        OfDouble(DoubleSupplier supplier) {
+            this.supplier = supplier;
+        }
+
+        // the loader, released after loading
+        volatile DoubleSupplier supplier;
+        // the state, the write of DONE publishes the value
+        volatile int state;
+        // the cached value
+        double value;
+
+        @Override
+        public double getAsDouble() {
+            if (state == DONE)
+                return value;
+
+            DoubleSupplier s = supplier;
+            if (s != null) {
+                double computed = s.getAsDouble();
+                if ((int) STATE.compareAndExchange(this, UNSET, PUBLISHING) == UNSET) {
+                    value = computed;
+                    supplier = null;
+                    state = DONE;
+                    return computed;
+                }
+            }
+
+            awaitDone(STATE, this);
+            return value;
+        }
+
+        @Override
+        public boolean isSet() {
+            return true;
+        }
+
+        @Override
+        public DoubleContainer setDouble(double val) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Container.Mutability mutability() {
+            return Container.Mutability.UNSUPPORTED;
+        }
+
+    }
+
+}
@@ -0,0 +1,563 @@
+package coldsrc.coldlib.util;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToLongFunction;
+
+/**
+ * A {@link Container} specialized for {@code long}
+ * values. The primitive accessors never box, a boxed
+ * {@link Container} view can be obtained through
+ * {@link LongContainer#boxed()} when needed.
+ *
+ * This class extends {@link LongSupplier} for inter-op.
+ */
+public interface LongContainer extends LongSupplier {
+
+    /**
+     * Create a new immutable container
+     * with the value already set.
+     *
+     * @param value The final value.
+     * @return The container instance.
+     */
+    static LongContainer finalImmutable(final long value) {
+        // return new container
+        return new LongContainer() {
+            @Override
+            public long getAsLong() {
+                return value;
+            }
+
+            @Override
+            public boolean isSet() {
+                return true;
+            }
+
+            @Override
+            public LongContainer setLong(long val) {
+                throw new UnsupportedOperationException("Container is immutable");
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return Container.Mutability.UNSUPPORTED;
+            }
+        };
+    }
+
+    /**
+     * Create a new mutable container instance
+     * with the value pre-set.
+     *
+     * @param val The value to pre-set.
+     * @return The container instance.
+     */
+    static LongContainer mutable(final long val) {
+        // return new container
+        return new LongContainer() {
+            // the value currently stored
+            long value = val;
+
+            @Override
+            public long getAsLong() {
+                return value;
+            }
+
+            @Override
+            public boolean isSet() {
+                return true;
+            }
+
+            @Override
+            public LongContainer setLong(long val) {
+                value = val;
+                return this;
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return Container.Mutability.MODIFY;
+            }
+        };
+    }
+
+    /**
+     * Create a new mutable container instance
+     * with the value pre-set to {@code 0}.
+     *
+     * @return The container instance.
+     */
+    static LongContainer mutable() {
+        return mutable(0);
+    }
+
+    /**
+     * A mutable container which stores the current
+     * value in a volatile field, updated atomically
+     * making it thread safe. It starts at zero and
+     * is always set.
+     *
+     * @return The atomic container instance.
+     */
+    static LongContainer atomic() {
+        return new AtomicLongContainer(0);
+    }
+
+    /**
+     * A mutable container which stores the current
+     * value in a volatile field, updated atomically
+     * making it thread safe.
+     *
+     * @param val The value to pre-set.
+     * @return The atomic container instance.
+     */
+    static LongContainer atomic(long val) {
+        return new AtomicLongContainer(val);
+    }
+
+    /**
+     * Create a new container which lazy loads
+     * the value using the provided supplier when
+     * it is first queried, using {@link Container.LazyMode#SYNCHRONIZED}.
+     *
+     * This container is immutable.
+     *
+     * @param supplier The lazy loader.
+     * @return The lazy loaded container instance.
+     */
+    static LongContainer lazy(LongSupplier supplier) {
+        return lazy(Container.LazyMode.SYNCHRONIZED, supplier);
+    }
+
+    /**
+     * Create a new container which lazy loads
+     * the value using the provided supplier when
+     * it is first queried, synchronizing the load
+     * as specified by the provided mode.
+     *
+     * This container is immutable.
+     *
+     * @param mode The thread safety mode.
+     * @param supplier The lazy loader.
+     * @return The lazy loaded container instance.
+     */
+    static LongContainer lazy(final Container.LazyMode mode,
+                             final LongSupplier supplier) {
+        Objects.requireNonNull(mode, "Lazy mode can not be null");
+        Objects.requireNonNull(supplier, "Supplier can not be null");
+        if (mode == Container.LazyMode.PUBLICATION)
+            return new LazyPublication.OfLong(supplier);
+        return new LongContainer() {
+            // if the value has been loaded, the
+            // volatile write publishes the value
+            volatile boolean initialized;
+            // the cached value
+            long value;
+
+            @Override
+            public long getAsLong() {
+                if (initialized)
+                    return value;
+
+                switch (mode) {
+                    case NONE -> {
+                        value = supplier.getAsLong();
+                        initialized = true;
+                    }
+
+                    case SYNCHRONIZED -> {
+                        synchronized (this) {
+                            if (!initialized) {
+                                value = supplier.getAsLong();
+                                initialized = true;
+                            }
+                        }
+                    }
+                }
+
+                return value;
+            }
+
+            @Override
+            public boolean isSet() {
+                return true;
+            }
+
+            @Override
+            public LongContainer setLong(long val) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return Container.Mutability.UNSUPPORTED;
+            }
+        };
+    }
+
+    /**
+     * Wraps the given container with the provided
+     * mapping function to return an immutable container
+     * which maps the queried value.
+     *
+     * @param container The container to wrap.
+     * @param function The mapper.
+     * @return The mapping container.
+     */
+    static LongContainer mapped(final LongContainer container,
+                               final LongUnaryOperator function) {
+        return new LongContainer() {
+            @Override
+            public long getAsLong() {
+                return function.applyAsLong(container.getAsLong());
+            }
+
+            @Override
+            public boolean isSet() {
+                return container.isSet();
+            }
+
+            @Override
+            public LongContainer setLong(long val) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return Container.Mutability.UNSUPPORTED;
+            }
+        };
+    }
+
+    /**
+     * Wraps the given generic container with the provided
+     * mapping function to return an immutable container
+     * which maps the queried value of type {@code V} to
+     * a {@code long}.
+     *
+     * @param container The container to wrap.
+     * @param function The V -> long mapper.
+     * @param <V> The original value type.
+     * @return The mapping container.
+     */
+    static <V> LongContainer mapped(final Container<V> container,
+                                   final ToLongFunction<V> function) {
+        return new LongContainer() {
+            @Override
+            public long getAsLong() {
+                return function.applyAsLong(container.get());
+            }
+
+            @Override
+            public boolean isSet() {
+                return container.isSet();
+            }
+
+            @Override
+            public LongContainer setLong(long val) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return Container.Mutability.UNSUPPORTED;
+            }
+        };
+    }
+
+    /**
+     * Create a new container wrapping the
+     * provided container to introduce awaiting
+     * functionality, like {@link Container#awaitable(Container)}.
+     *
+     * Values are only boxed to complete futures
+     * when there are futures waiting.
+     *
+     * @param container The container to wrap.
+     * @return The new, wrapper container.
+     */
+    static LongContainer awaitable(final LongContainer container) {
+        return new LongContainer() {
+            // the waiters
+            final AwaitableContainer<Long> waiters = new AwaitableContainer<>(container.boxed());
+
+            @Override
+            public long getAsLong() {
+                return container.getAsLong();
+            }
+
+            @Override
+            public boolean isSet() {
+                return container.isSet();
+            }
+
+            @Override
+            public LongContainer setLong(long val) {
+                try {
+                    container.setLong(val);
+                } catch (Throwable t) {
+                    waiters.fail(t);
+                    Throwables.sneakyThrow(t);
+                }
+
+                if (waiters.hasWaiters())
+                    waiters.complete(val);
+                return this;
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return container.mutability();
+            }
+
+            @Override
+            public boolean canAwait() {
+                return true;
+            }
+
+            @Override
+            public CompletableFuture<Long> await(boolean listen) {
+                return waiters.await(listen);
+            }
+        };
+    }
+
+    /**
+     * Wraps the given generic container as an
+     * {@code long} container. This unboxes on every
+     * query, so prefer creating a specialized
+     * container directly if possible.
+     *
+     * @param container The container to wrap.
+     * @return The unboxing container.
+     */
+    static LongContainer unboxed(final Container<Long> container) {
+        return new LongContainer() {
+            @Override
+            public long getAsLong() {
+                return container.get();
+            }
+
+            @Override
+            public boolean isSet() {
+                return container.isSet();
+            }
+
+            @Override
+            public LongContainer setLong(long val) {
+                container.set(val);
+                return this;
+            }
+
+            @Override
+            public Container.Mutability mutability() {
+                return container.mutability();
+            }
+
+            @Override
+            public boolean canAwait() {
+                return container.canAwait();
+            }
+
+            @Override
+            public CompletableFuture<Long> await(boolean listen) {
+                return container.await(listen);
+            }
+
+            @Override
+            public Container<Long> boxed() {
+                return container;
+            }
+        };
+    }
+
+    ////////////////////////////////////////////
+
+    /**
+     * Issue the value currently stored.
+     *
+     * @see Container#get()
+     * @return The value.
+     */
+    @Override
+    long getAsLong();
+
+    /**
+     * Get if a value is currently set.
+     *
+     * @return If a value is currently set.
+     */
+    boolean isSet();
+
+    /**
+     * Set the value stored to {@code val}.
+     *
+     * @see Container#set(Object)
+     * @param val The value to set.
+     * @return This or a new instance with the new value.
+     * @throws UnsupportedOperationException If setting is unsupported.
+     */
+    LongContainer setLong(long val);
+
+    /**
+     * Get this containers mutability.
+     *
+     * @return The active mutability settings.
+     */
+    Container.Mutability mutability();
+
+    /**
+     * Get the value as a result without boxing.
+     *
+     * @see Container#issue()
+     * @return The result.
+     */
+    default LongResult issue() {
+        // check if set
+        if (!isSet())
+            return LongResult.unset();
+
+        try {
+            return LongResult.success(getAsLong());
+        } catch (Throwable err) {
+            return LongResult.failed(err);
+        }
+    }
+
+    /**
+     * Get the value if set, or return the
+     * provided fallback if absent.
+     *
+     * @param def The fallback value.
+     * @return The value.
+     */
+    default long orElse(long def) {
+        return isSet() ? getAsLong() : def;
+    }
+
+    /**
+     * Add the provided delta to the value
+     * and return the new value. This is atomic
+     * on atomic containers, otherwise it is
+     * a plain get and set.
+     *
+     * @param delta The amount to add.
+     * @return The updated value.
+     */
+    default long addAndGet(long delta) {
+        long val = getAsLong() + delta;
+        setLong(val);
+        return val;
+    }
+
+    /**
+     * Set the value to {@code update} if the
+     * current value equals {@code expect}. This is
+     * atomic on atomic containers, otherwise it
+     * is a plain get and set.
+     *
+     * @param expect The expected value.
+     * @param update The new value.
+     * @return If the value was updated.
+     */
+    default boolean compareAndSet(long expect, long update) {
+        if (getAsLong() != expect)
+            return false;
+        setLong(update);
+        return true;
+    }
+
+    /**
+     * Get if you can await/listen a value.
+     *
+     * @return True/false.
+     */
+    default boolean canAwait() {
+        return false;
+    }
+
+    /**
+     * Awaits a value in this container
+     * if supported.
+     *
+     * @see Container#await(boolean)
+     * @throws UnsupportedOperationException If awaiting is unsupported.
+     * @param listen If it should listen for a value,
+     *               or instead already complete if a
+     *               value is set.
+     * @return The future.
+     */
+    default CompletableFuture<Long> await(boolean listen) {
+        // check if it can be completed
+        if (!listen && isSet())
+            return CompletableFuture.completedFuture(getAsLong());
+        // otherwise throw error
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @see LongContainer#await(boolean)
+     * {@code listen} is defaulted to false.
+     */
+    default CompletableFuture<Long> await() {
+        return await(false);
+    }
+
+    /**
+     * Get a boxed, generic view of this
+     * container. Reads and writes through
+     * the view go to this container.
+     *
+     * @return The boxed container view.
+     */
+    default Container<Long> boxed() {
+        final LongContainer self = this;
+        return new Container<>() {
+            @Override
+            public Long get() {
+                return self.getAsLong();
+            }
+
+            @Override
+            public boolean isSet() {
+                return self.isSet();
+            }
+
+            @Override
+            public Container<Long> set(Long val) {
+                self.setLong(val);
+                return this;
+            }
+
+            @Override
+            public Mutability mutability() {
+                return self.mutability();
+            }
+
+            @Override
+            public boolean canAwait() {
+                return self.canAwait();
+            }
+
+            @Override
+            public CompletableFuture<Long> await(boolean listen) {
+                return self.await(listen);
+            }
+        };
+    }
+
+    /* QOL Methods */
+
+    default LongContainer map(LongUnaryOperator function) {
+        return LongContainer.mapped(this, function);
+    }
+
+    default LongContainer awaitable() {
+        return awaitable(this);
+    }
+
+}
+
@@ -0,0 +1,249 @@
+package coldsrc.coldlib.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link Result} specialized for {@code long} values,
+ * which does not box the value. It has the same semantics
+ * and shares the unset and stackless failure instances
+ * with {@link Result}.
+ *
+ * Successes for values between -128 and 1023 are cached
+ * shared instances.
+ */
+public final class LongResult {
+
+    /** The cached successes for small values. */
+    static final int CACHE_LOW  = -128;
+    static final int CACHE_HIGH = 1024;
+    static final LongResult[] CACHE = new LongResult[CACHE_HIGH - CACHE_LOW];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++)
+            CACHE[i] = new LongResult(i + CACHE_LOW, null);
+    }
+
+    /** The shared unset result. */
+    static final LongResult UNSET = new LongResult(0, Result.NO_VALUE);
+
+    /** The shared stackless failed result. */
+    static final LongResult FAILED = new LongResult(0, Result.FAILED.throwable);
+
+    /**
+     * Create a new success result with
+     * the provided value.
+     *
+     * @param value The value.
+     * @return The result instance.
+     */
+    public static LongResult success(final long value) {
+        if (value >= CACHE_LOW && value < CACHE_HIGH)
+            return CACHE[(int) value - CACHE_LOW];
+        return new LongResult(value, null);
+    }
+
+    /**
+     * Get the shared result without a value set.
+     *
+     * @see Result#unset()
+     * @return The result instance.
+     */
+    public static LongResult unset() {
+        return UNSET;
+    }
+
+    /**
+     * Create a new result signaling that the
+     * operation failed with the given error.
+     *
+     * @see Result#failed(Throwable)
+     * @param throwable The cause.
+     * @return The failed result instance.
+     */
+    public static LongResult failed(Throwable throwable) {
+        if (throwable == null)
+            return FAILED;
+        return new LongResult(0, throwable);
+    }
+
+    /**
+     * Create a new failed result with a stackless
+     * failure carrying the provided message.
+     *
+     * @see Result#failedLite(String)
+     * @param message The failure message.
+     * @return The failed result instance.
+     */
+    public static LongResult failedLite(String message) {
+        return new LongResult(0, new Result.FailedException(message, false));
+    }
+
+    /**
+     * Get the shared stackless failed result.
+     *
+     * @see Result#failedLite()
+     * @return The failed result instance.
+     */
+    public static LongResult failedLite() {
+        return FAILED;
+    }
+
+    /**
+     * Convert a generic result to a primitive one.
+     * A present null value is converted to a failure
+     * with a {@link NullPointerException}.
+     *
+     * @param result The result.
+     * @return The primitive result.
+     */
+    public static LongResult from(Result<? extends Long> result) {
+        Throwable t = result.throwable;
+        if (t == Result.NO_VALUE)
+            return UNSET;
+        if (t == Result.FAILED.throwable)
+            return FAILED;
+        if (t != null)
+            return new LongResult(0, t);
+        Long value = result.value;
+        return value != null ? success(value) : failed(new NullPointerException("Result value is null"));
+    }
+
+    ////////////////////////////////////////////
+
+    LongResult(final long value,
+               final Throwable throwable) {
+        this.value     = value;
+        this.throwable = throwable;
+    }
+
+    /**
+     * The value, zero if absent.
+     */
+    final long value;
+
+    /**
+     * The optional throwable thrown by the result.
+     *
+     * @see Result#throwable
+     */
+    final Throwable throwable;
+
+    /**
+     * Check if a SUCCESSFUL value is present.
+     *
+     * @return If a value was successfully assigned and is present.
+     */
+    public boolean isPresent() {
+        return throwable == null;
+    }
+
+    /**
+     * Check if an error occurred.
+     *
+     * @see Result#isSuccess()
+     * @return If a throwable was captured.
+     */
+    public boolean isSuccess() {
+        return throwable != null && throwable != Result.NO_VALUE;
+    }
+
+    /**
+     * Returns the captured error if present,
+     * or null if absent.
+     *
+     * @return The error or null if absent.
+     */
+    public Throwable error() {
+        return throwable != Result.NO_VALUE ? throwable : null;
+    }
+
+    /**
+     * Get the value if present or the provided
+     * default/fallback value if absent.
+     *
+     * @param def The fallback value.
+     * @return The value or the fallback value.
+     */
+    public long orElse(long def) {
+        return throwable == null ? value : def;
+    }
+
+    /**
+     * Get the value if present or the value
+     * produced by the provided supplier if absent.
+     *
+     * @param def The fallback value supplier.
+     * @return The value or the fallback value.
+     */
+    public long orElseGet(LongSupplier def) {
+        return throwable == null ? value : def.getAsLong();
+    }
+
+    /**
+     * Rethrow the captured error if failed.
+     *
+     * @see Result#rethrowFailed()
+     * @return This.
+     */
+    public LongResult rethrowFailed() {
+        Throwable t = error();
+        if (t != null)
+            Throwables.sneakyThrow(t);
+        return this;
+    }
+
+    /**
+     * Get the value if successful, or
+     * rethrow the captured error if failed.
+     * Unset results return zero.
+     *
+     * @see Result#orRethrow()
+     * @return The value.
+     */
+    public long orRethrow() {
+        Throwable t = error();
+        if (t != null)
+            Throwables.sneakyThrow(t);
+        return value;
+    }
+
+    /**
+     * Get and return the value if present,
+     * or throw with a description if absent.
+     *
+     * @see Result#unwrap()
+     * @return The value.
+     * @throws Result.AbsentValueException If no value is present.
+     */
+    public long unwrap() {
+        if (throwable != null)
+            throw Result.absent(throwable);
+        return value;
+    }
+
+    /**
+     * Convert this result to a generic result,
+     * boxing the value if present.
+     *
+     * @return The generic result.
+     */
+    public Result<Long> boxed() {
+        if (throwable == null)
+            return Result.success(value);
+        if (throwable == Result.NO_VALUE)
+            return Result.unset();
+        if (throwable == Result.FAILED.throwable)
+            return Result.failedLite();
+        return Result.failed(throwable);
+    }
+
+    @Override
+    public String toString() {
+        if (throwable == null)
+            return "LongResult(" + value + ")";
+        if (throwable == Result.NO_VALUE)
+            return "LongResult(unset)";
+        return "LongResult(failed: " + throwable + ")";
+    }
+
+}
@@ -0,0 +1,140 @@
+package coldsrc.coldlib.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * A group of containers which are loaded in
+ * parallel in the background when the group is
+ * started, for example while the server is still
+ * booting, so the first queries on the main thread
+ * do not have to load them.
+ *
+ * Example:
+ * <pre>{@code
+ * PreloadGroup group = PreloadGroup.create();
+ * Container<Registry> registry = group.add(Registry::load);
+ * Container<Table> table = group.addContainer(Container.lazy(Table::compute));
+ * group.start().thenAccept(results -> ...);
+ * }</pre>
+ */
+public final class PreloadGroup {
+
+    /**
+     * Create a new group loading on the
+     * provided executor.
+     *
+     * @param executor The executor.
+     * @return The group.
+     */
+    public static PreloadGroup create(Executor executor) {
+        return new PreloadGroup(executor);
+    }
+
+    /**
+     * Create a new group loading on the
+     * {@link AsyncExecutors#sharedExecutor()}.
+     *
+     * @return The group.
+     */
+    public static PreloadGroup create() {
+        return new PreloadGroup(AsyncExecutors.sharedExecutor());
+    }
+
+    ////////////////////////////////////////////
+
+    PreloadGroup(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "Executor can not be null");
+    }
+
+    // the executor to load on
+    final Executor executor;
+
+    // the containers added since the last start
+    final List<Container<?>> pending = new ArrayList<>();
+
+    /**
+     * Add a new preloading container for the provided
+     * supplier to this group. It will start loading
+     * when the group is started, or when first queried.
+     *
+     * @param supplier The value loader.
+     * @param <V> The value type.
+     * @return The container.
+     */
+    public <V> PreloadingContainer<V> add(Supplier<V> supplier) {
+        return addContainer(new PreloadingContainer<>(supplier));
+    }
+
+    /**
+     * Add an existing container to this group. When the
+     * group is started {@link Container#issue()} will be
+     * called on the executor to load the value, so this
+     * is best used with thread safe lazy containers like
+     * those created by {@link Container#lazy(Supplier)}.
+     *
+     * @param container The container.
+     * @param <C> The container type.
+     * @return The container.
+     */
+    public <C extends Container<?>> C addContainer(C container) {
+        Objects.requireNonNull(container, "Container can not be null");
+        synchronized (pending) {
+            pending.add(container);
+        }
+
+        return container;
+    }
+
+    /**
+     * Start loading all containers added since the
+     * last start in parallel. Errors are not thrown,
+     * the returned future completes with the outcome
+     * of each container, in the order they were added.
+     *
+     * @return The future outcomes.
+     */
+    public CompletableFuture<List<Result<?>>> start() {
+        Container<?>[] containers;
+        synchronized (pending) {
+            containers = pending.toArray(new Container<?>[0]);
+            pending.clear();
+        }
+
+        // start all loads
+        final int l = containers.length;
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[l];
+        for (int i = 0; i < l; i++) {
+            Container<?> container = containers[i];
+            if (container instanceof PreloadingContainer<?> preloading)
+                futures[i] = preloading.preload(executor);
+            else
+                futures[i] = issueAsync(container);
+        }
+
+        // collect outcomes
+        return CompletableFuture.allOf(futures).thenApply(__ -> {
+            Result<?>[] results = new Result<?>[l];
+            for (int i = 0; i < l; i++)
+                results[i] = (Result<?>) futures[i].join();
+            return Arrays.asList(results);
+        });
+    }
+
+    // issue the container on the executor, failing
+    // only this container if the executor rejects it
+    private CompletableFuture<Result<?>> issueAsync(Container<?> container) {
+        try {
+            return CompletableFuture.supplyAsync(container::issue, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(Result.failed(e));
+        }
+    }
+
+}
@@ -0,0 +1,183 @@
+package coldsrc.coldlib.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * A lazy container which can start loading its value
+ * in the background before it is first queried, created
+ * by {@link Container#preloading(Supplier, Executor)} or
+ * through a {@link PreloadGroup}.
+ *
+ * The supplier is called exactly once, either by the
+ * preload task or by the first caller of {@link PreloadingContainer#get()}
+ * if the task has not started yet. Callers only block if
+ * the value is still being loaded by another thread.
+ * The outcome is stored as a {@link Result}, so errors
+ * thrown by the supplier are rethrown by {@link PreloadingContainer#get()}
+ * and returned by {@link PreloadingContainer#issue()}.
+ *
+ * This container is immutable.
+ *
+ * @param <V> The value type.
+ */
+public final class PreloadingContainer<V> implements Container<V> {
+
+    static final VarHandle CLAIMED;
+
+    static {
+        try {
+            CLAIMED = MethodHandles.lookup().findVarHandle(PreloadingContainer.class, "claimed", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    PreloadingContainer(Supplier<V> supplier) {
+        this.supplier = Objects.requireNonNull(supplier, "Supplier can not be null");
+    }
+
+    // the loader, released after loading
+    Supplier<V> supplier;
+    // if a thread has claimed the load
+    volatile boolean claimed;
+    // the outcome, null until loaded
+    volatile Result<V> result;
+    // completed with the outcome
+    final CompletableFuture<Result<V>> loaded = new CompletableFuture<>();
+
+    /**
+     * Load the value on the calling thread
+     * if no other thread has claimed it yet.
+     */
+    void load() {
+        if (claimed || !CLAIMED.compareAndSet(this, false, true))
+            return;
+
+        Result<V> r;
+        try {
+            r = Result.success(supplier.get());
+        } catch (Throwable t) {
+            r = Result.failed(t);
+        }
+
+        supplier = null;
+        result = r;
+        loaded.complete(r);
+    }
+
+    /**
+     * Start loading the value on the provided
+     * executor, if it is not loaded or being
+     * loaded already. If the executor rejects the
+     * task, the value will be loaded on first query.
+     *
+     * @param executor The executor to load on.
+     * @return The future outcome of the load.
+     */
+    public CompletableFuture<Result<V>> preload(Executor executor) {
+        Objects.requireNonNull(executor, "Executor can not be null");
+        if (!claimed) {
+            try {
+                executor.execute(this::load);
+            } catch (RejectedExecutionException ignored) {
+                // loaded on first query instead
+            }
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Get the outcome of the load, waiting for
+     * it or loading it on the calling thread if
+     * not done yet.
+     *
+     * @return The outcome.
+     */
+    private Result<V> outcome() {
+        // fast path, already loaded
+        Result<V> r = result;
+        if (r != null)
+            return r;
+
+        // load here if nobody else has
+        load();
+        r = result;
+        return r != null ? r : loaded.join();
+    }
+
+    @Override
+    public V get() {
+        return outcome().orRethrow();
+    }
+
+    @Override
+    public Result<V> issue() {
+        return outcome();
+    }
+
+    @Override
+    public boolean isSet() {
+        return true;
+    }
+
+    @Override
+    public Container<V> set(V val) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Mutability mutability() {
+        return Mutability.UNSUPPORTED;
+    }
+
+    @Override
+    public long version() {
+        return 0;
+    }
+
+    @Override
+    public boolean canAwait() {
+        return true;
+    }
+
+    /**
+     * Awaits the value without loading it on the
+     * calling thread. As the value is only set once,
+     * {@code listen} has no effect. If loading failed
+     * the future is completed exceptionally.
+     *
+     * @param listen Ignored.
+     * @return The future.
+     */
+    @Override
+    public CompletableFuture<V> await(boolean listen) {
+        return loaded.thenApply(Result::orRethrow);
+    }
+
+    /**
+     * Get if the value has been loaded yet.
+     *
+     * @return If the value has been loaded.
+     */
+    public boolean isLoaded() {
+        return result != null;
+    }
+
+    /**
+     * Get a future completed with the outcome
+     * once the value has been loaded.
+     *
+     * @return The future.
+     */
+    public CompletableFuture<Result<V>> loaded() {
+        return loaded;
+    }
+
+}
@@ -0,0 +1,183 @@
+package coldsrc.coldlib.util;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * The container created by {@link Container#protect(Container, Predicate, boolean)}
+ * and {@link Container#protectByClass(Container, Predicate, boolean)}.
+ *
+ * The caller is found using a {@link StackWalker}, skipping
+ * frames of the container implementations in this package
+ * (including the default methods of {@link Container}), so
+ * wrapping a protected container does not hide the caller.
+ *
+ * @param <V> The value type.
+ */
+final class ProtectedContainer<V> implements Container<V> {
+
+    /**
+     * The maximum amount of frames walked to find the
+     * caller. If all of them are container frames the
+     * caller is unknown and access is denied.
+     */
+    static final int MAX_DEPTH = 16;
+
+    /** The stack walker used to find callers. */
+    static final StackWalker WALKER = StackWalker.getInstance(
+            Set.of(StackWalker.Option.RETAIN_CLASS_REFERENCE), MAX_DEPTH);
+
+    /** If a class is a container implementation of this package. */
+    static final ClassValue<Boolean> INTERNAL = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return Container.class.isAssignableFrom(type) &&
+                    type.getPackage() == Container.class.getPackage();
+        }
+    };
+
+    /** Finds the first frame outside of the container implementations. */
+    static final Function<Stream<StackWalker.StackFrame>, StackWalker.StackFrame> FIND_CALLER =
+            frames -> frames
+                    .limit(MAX_DEPTH)
+                    .dropWhile(frame -> INTERNAL.get(frame.getDeclaringClass()))
+                    .findFirst()
+                    .orElse(null);
+
+    /**
+     * Decides whether a caller is
+     * allowed to access a container.
+     */
+    interface Check {
+
+        /**
+         * Test whether the caller frame
+         * is allowed access.
+         *
+         * @param caller The caller frame.
+         * @return If access is allowed.
+         */
+        boolean allows(StackWalker.StackFrame caller);
+
+    }
+
+    /**
+     * Create a check testing the stack trace element
+     * of the caller frame. The decision depends on the
+     * method and line, so it is made on every access.
+     *
+     * @param predicate The predicate.
+     * @return The check.
+     */
+    static Check elementCheck(Predicate<StackTraceElement> predicate) {
+        Objects.requireNonNull(predicate, "Predicate can not be null");
+        return caller -> predicate.test(caller.toStackTraceElement());
+    }
+
+    /**
+     * Create a check testing the class of the caller
+     * frame. The decision is cached per caller class,
+     * so repeated access is just a lookup.
+     *
+     * @param predicate The predicate.
+     * @return The check.
+     */
+    static Check classCheck(Predicate<Class<?>> predicate) {
+        Objects.requireNonNull(predicate, "Predicate can not be null");
+        final ClassValue<Boolean> decisions = new ClassValue<>() {
+            @Override
+            protected Boolean computeValue(Class<?> type) {
+                return predicate.test(type);
+            }
+        };
+
+        return caller -> decisions.get(caller.getDeclaringClass());
+    }
+
+    ////////////////////////////////////////////
+
+    ProtectedContainer(Container<V> container,
+                       Check check,
+                       boolean protectNew) {
+        this.container  = Objects.requireNonNull(container, "Container can not be null");
+        this.check      = check;
+        this.protectNew = protectNew;
+    }
+
+    // the wrapped container
+    final Container<V> container;
+    // the access check
+    final Check check;
+    // if new instances should be protected
+    final boolean protectNew;
+
+    /**
+     * Check the access for the caller of
+     * the function which called this.
+     */
+    private void checkAccess() {
+        StackWalker.StackFrame caller = WALKER.walk(FIND_CALLER);
+        if (caller == null || !check.allows(caller))
+            throw new SecurityException("Access to container denied");
+    }
+
+    @Override
+    public V get() {
+        checkAccess();
+        return container.get();
+    }
+
+    @Override
+    public boolean isSet() {
+        checkAccess();
+        return container.isSet();
+    }
+
+    @Override
+    public Container<V> set(V val) {
+        checkAccess();
+
+        // get return value
+        Container<V> ret = container.set(val);
+
+        if (ret != container)
+            if (protectNew)
+                // protect new instances
+                return new ProtectedContainer<>(ret, check, true);
+            else
+                // dont protect new instance
+                return ret;
+        else
+            // return already protected this
+            return this;
+    }
+
+    @Override
+    public Mutability mutability() {
+        checkAccess();
+        return container.mutability();
+    }
+
+    @Override
+    public long version() {
+        checkAccess();
+        return container.version();
+    }
+
+    @Override
+    public boolean canAwait() {
+        checkAccess();
+        return container.canAwait();
+    }
+
+    @Override
+    public CompletableFuture<V> await(boolean listen) {
+        checkAccess();
+        return container.await(listen);
+    }
+
+}
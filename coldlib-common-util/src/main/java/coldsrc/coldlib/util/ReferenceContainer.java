@@ -0,0 +1,155 @@
+package coldsrc.coldlib.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A container which holds its value through a
+ * {@link SoftReference} or {@link WeakReference},
+ * created by {@link Container#soft(Supplier)} and
+ * {@link Container#weak(Supplier)}.
+ *
+ * When the garbage collector clears the value, it is
+ * loaded again through the supplier on the next query.
+ * Loading is synchronized, so a cleared value is only
+ * rebuilt once when queried by multiple threads.
+ *
+ * As a cleared reference can not be told apart from
+ * a null value, null values are never cached.
+ *
+ * @param <V> The value type.
+ */
+public final class ReferenceContainer<V> implements Container<V> {
+
+    static final VarHandle VERSION;
+
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(ReferenceContainer.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    ReferenceContainer(Supplier<V> supplier, boolean soft) {
+        this.supplier = Objects.requireNonNull(supplier, "Supplier can not be null");
+        this.soft     = soft;
+    }
+
+    // the value loader
+    final Supplier<V> supplier;
+    // whether to use soft or weak references
+    final boolean soft;
+
+    // the reference to the value, null
+    // if it has never been loaded
+    volatile Reference<V> reference;
+    // incremented after the value is replaced
+    volatile long version;
+
+    // the amount of loads, only
+    // written while synchronized
+    volatile long loads;
+
+    @Override
+    public V get() {
+        // fast path, value still referenced
+        Reference<V> ref = reference;
+        V val;
+        if (ref != null && (val = ref.get()) != null)
+            return val;
+
+        synchronized (this) {
+            // check again under the lock
+            ref = reference;
+            if (ref != null && (val = ref.get()) != null)
+                return val;
+
+            // load the value
+            val = supplier.get();
+            loads++;
+            replace(val);
+            return val;
+        }
+    }
+
+    @Override
+    public boolean isSet() {
+        return true;
+    }
+
+    @Override
+    public Container<V> set(V val) {
+        synchronized (this) {
+            replace(val);
+        }
+
+        return this;
+    }
+
+    @Override
+    public Mutability mutability() {
+        return Mutability.MODIFY;
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    // replace the reference and increment the version
+    private void replace(V val) {
+        reference = val == null ? null :
+                soft ? new SoftReference<>(val) : new WeakReference<>(val);
+        VERSION.getAndAdd(this, 1L);
+    }
+
+    /**
+     * Get if the value is currently loaded,
+     * without loading it.
+     *
+     * @return If the value is loaded.
+     */
+    public boolean isLoaded() {
+        Reference<V> ref = reference;
+        return ref != null && ref.get() != null;
+    }
+
+    /**
+     * Clear the value, it will be loaded
+     * again on the next query.
+     */
+    public void clear() {
+        synchronized (this) {
+            replace(null);
+        }
+    }
+
+    /**
+     * Get the amount of times the value
+     * was loaded through the supplier.
+     *
+     * @return The load count.
+     */
+    public long loadCount() {
+        return loads;
+    }
+
+    /**
+     * Get the amount of times the value was
+     * loaded again after the first load, because
+     * it was cleared, null or replaced.
+     *
+     * @return The reload count.
+     */
+    public long reloadCount() {
+        long l = loads;
+        return l == 0 ? 0 : l - 1;
+    }
+
+}
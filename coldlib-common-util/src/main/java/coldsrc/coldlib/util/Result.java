@@ -16,11 +16,20 @@ public class Result<V> {
      * value. The returned instance will always
      * have a value set and marked as set.
      *
+     * Results for {@code null} and booleans are
+     * shared instances and do not allocate.
+     *
      * @param value The value (nullable).
      * @param <V> The value type.
      * @return The result instance.
      */
+    @SuppressWarnings("unchecked")
     public static <V> Result<V> success(final V value) {
+        // use the shared instances
+        if (value == null)
+            return (Result<V>) SUCCESS_NULL;
+        if (value instanceof Boolean b)
+            return (Result<V>) (b ? TRUE : FALSE);
         return new Result<>(value, null);
     }
 
@@ -28,13 +37,14 @@ public class Result<V> {
      * Create a new success result, but without
      * a value set or marked as set. The returned
      * instance will never have a value set or
-     * marked as set.
+     * marked as set. This is a shared instance.
      *
      * @param <V> The value type.
      * @return The result instance.
      */
+    @SuppressWarnings("unchecked")
     public static <V> Result<V> unset() {
-        return new Result<>(null, NO_VALUE);
+        return (Result<V>) UNSET;
     }
 
     /**
@@ -47,23 +57,89 @@ public class Result<V> {
      * @param <V> The value type (for compatibility).
      * @return The failed result instance.
      */
+    @SuppressWarnings("unchecked")
     public static <V> Result<V> failed(Throwable throwable) {
         if (throwable == null)
-            throwable = new FailedException();
+            return (Result<V>) FAILED;
         return new Result<>(null, throwable);
     }
 
+    /**
+     * Create a new failed result with a stackless
+     * {@link FailedException} carrying the provided
+     * message. This is meant for failures which are a
+     * normal outcome, where capturing a stack trace
+     * would dominate the cost.
+     *
+     * @param message The failure message.
+     * @param <V> The value type (for compatibility).
+     * @return The failed result instance.
+     */
+    public static <V> Result<V> failedLite(String message) {
+        return new Result<>(null, new FailedException(message, false));
+    }
+
+    /**
+     * Get the shared failed result with a stackless
+     * {@link FailedException} and no message. The same
+     * instance is returned by {@code failed(null)}.
+     *
+     * @param <V> The value type (for compatibility).
+     * @return The failed result instance.
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> Result<V> failedLite() {
+        return (Result<V>) FAILED;
+    }
+
     /**
      * For absent errors.
      * Simply describes that the operation failed.
      */
     public static class FailedException extends RuntimeException {
-        @Override public String getMessage() { return "No further information"; }
+
+        public FailedException() {
+            this.lite = false;
+        }
+
+        /**
+         * Create a failure which is stackless if
+         * {@code writableStackTrace} is false. Stackless
+         * failures can not have suppressed exceptions
+         * or a cause, so they can be shared.
+         *
+         * @param message The message (nullable).
+         * @param writableStackTrace Whether to capture the stack trace.
+         */
+        protected FailedException(String message, boolean writableStackTrace) {
+            super(message, null, writableStackTrace, writableStackTrace);
+            this.lite = !writableStackTrace;
+        }
+
+        // if this failure is stackless
+        final boolean lite;
+
+        @Override
+        public String getMessage() {
+            String message = super.getMessage();
+            return message != null ? message : "No further information";
+        }
+
     }
 
     /** No value descriptor instance. */
     static final NoValue NO_VALUE = new NoValue();
-    static class NoValue extends Throwable { private NoValue() { } }
+    static class NoValue extends Throwable { private NoValue() { super(null, null, false, false); } }
+
+    /* Shared Instances */
+    static final Result<?> UNSET        = new Result<>(null, NO_VALUE);
+    static final Result<?> SUCCESS_NULL = new Result<>(null, null);
+    static final Result<?> TRUE         = new Result<>(true, null);
+    static final Result<?> FALSE        = new Result<>(false, null);
+    static final Result<?> FAILED       = new Result<>(null, new FailedException(null, false));
+
+    /** Thrown when unwrapping an unset result. */
+    static final AbsentValueException ABSENT = new AbsentValueException(null, null, false);
 
     /////////////////////////////////////////////
 
@@ -215,17 +291,35 @@ public class Result<V> {
      * is a cause, an error captured, it will be set as the cause for
      * the {@link AbsentValueException} thrown.
      *
+     * The exceptions thrown for unset results and stackless
+     * failures ({@link Result#failedLite(String)}) do not capture
+     * a stack trace, the one for unset results is shared.
+     *
      * @return The value.
      * @throws AbsentValueException If no value is present.
      */
     public V unwrap() {
-        if (throwable == NO_VALUE)
-            throw new AbsentValueException();
         if (throwable != null)
-            throw new AbsentValueException("Operation failed with an exception", throwable);
+            throw absent(throwable);
         return value;
     }
 
+    /**
+     * Create the exception thrown when unwrapping
+     * a result without a value, with the provided
+     * throwable field.
+     *
+     * @param throwable The captured error or {@link Result#NO_VALUE}.
+     * @return The exception to throw.
+     */
+    static AbsentValueException absent(Throwable throwable) {
+        if (throwable == NO_VALUE)
+            return ABSENT;
+        if (throwable instanceof FailedException f && f.lite)
+            return new AbsentValueException("Operation failed with an exception", throwable, false);
+        return new AbsentValueException("Operation failed with an exception", throwable);
+    }
+
     /**
      * An exception used by {@link Result} when unwrapping
      * the result to signal the absence of a value.
@@ -250,6 +344,18 @@ public class Result<V> {
             super(cause);
         }
 
+        /**
+         * Create an exception which is stackless
+         * if {@code writableStackTrace} is false.
+         *
+         * @param message The message.
+         * @param cause The cause.
+         * @param writableStackTrace Whether to capture the stack trace.
+         */
+        protected AbsentValueException(String message, Throwable cause, boolean writableStackTrace) {
+            super(message, cause, writableStackTrace, writableStackTrace);
+        }
+
     }
 
 }
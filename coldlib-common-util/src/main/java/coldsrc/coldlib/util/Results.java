@@ -0,0 +1,360 @@
+package coldsrc.coldlib.util;
+
+import coldsrc.coldlib.util.functional.ThrowingSupplier;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Utilities for working with {@link Result}s,
+ * like running many suppliers in parallel.
+ */
+public final class Results {
+
+    // static utility class
+    // no instantiating
+    private Results() { }
+
+    /**
+     * Run all provided suppliers in parallel on the
+     * {@link AsyncExecutors#sharedExecutor()} and wait
+     * for their outcomes.
+     *
+     * @see Results#attemptAllAsync(Collection, Executor, Duration, int)
+     * @param suppliers The suppliers.
+     * @param <T> The value type.
+     * @return The outcomes, in the order of the suppliers.
+     */
+    public static <T> Result<T>[] attemptAll(Collection<? extends ThrowingSupplier<? extends T>> suppliers) {
+        return attemptAllAsync(suppliers, AsyncExecutors.sharedExecutor(), null, 0).join();
+    }
+
+    /**
+     * Run all provided suppliers in parallel on the
+     * executor and wait for their outcomes.
+     *
+     * @see Results#attemptAllAsync(Collection, Executor, Duration, int)
+     * @param suppliers The suppliers.
+     * @param executor The executor to run on.
+     * @param <T> The value type.
+     * @return The outcomes, in the order of the suppliers.
+     */
+    public static <T> Result<T>[] attemptAll(Collection<? extends ThrowingSupplier<? extends T>> suppliers,
+                                             Executor executor) {
+        return attemptAllAsync(suppliers, executor, null, 0).join();
+    }
+
+    /**
+     * Run all provided suppliers in parallel on the
+     * executor and wait for their outcomes.
+     *
+     * @see Results#attemptAllAsync(Collection, Executor, Duration, int)
+     * @param suppliers The suppliers.
+     * @param executor The executor to run on.
+     * @param timeout The timeout per supplier, or null.
+     * @param failureThreshold The failures after which the rest is cancelled, or 0.
+     * @param <T> The value type.
+     * @return The outcomes, in the order of the suppliers.
+     */
+    public static <T> Result<T>[] attemptAll(Collection<? extends ThrowingSupplier<? extends T>> suppliers,
+                                             Executor executor,
+                                             Duration timeout,
+                                             int failureThreshold) {
+        return attemptAllAsync(suppliers, executor, timeout, failureThreshold).join();
+    }
+
+    /**
+     * Run all provided suppliers in parallel on the executor,
+     * capturing each outcome as a {@link Result}. The returned
+     * future never completes exceptionally.
+     *
+     * If a timeout is provided, suppliers running longer than
+     * it after starting fail with a {@link TimeoutException}
+     * and are interrupted. If a failure threshold is provided,
+     * once that many suppliers failed all unfinished ones fail
+     * with a {@link CancellationException}; queued suppliers are
+     * skipped and running ones interrupted.
+     *
+     * @param suppliers The suppliers.
+     * @param executor The executor to run on.
+     * @param timeout The timeout per supplier, or null for none.
+     * @param failureThreshold The failures after which the rest is cancelled, or 0 for never.
+     * @param <T> The value type.
+     * @return The future outcomes, in the order of the suppliers.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CompletableFuture<Result<T>[]> attemptAllAsync(Collection<? extends ThrowingSupplier<? extends T>> suppliers,
+                                                                     Executor executor,
+                                                                     Duration timeout,
+                                                                     int failureThreshold) {
+        Objects.requireNonNull(suppliers, "Suppliers can not be null");
+        Objects.requireNonNull(executor, "Executor can not be null");
+        if (timeout != null && (timeout.isNegative() || timeout.isZero()))
+            throw new IllegalArgumentException("Timeout must be positive");
+        if (failureThreshold < 0)
+            throw new IllegalArgumentException("Failure threshold can not be negative");
+
+        ThrowingSupplier<? extends T>[] array = (ThrowingSupplier<? extends T>[]) suppliers.toArray(new ThrowingSupplier<?>[0]);
+        Batch<T> batch = new Batch<>(array.length,
+                timeout != null ? timeout.toNanos() : 0,
+                failureThreshold > 0 ? failureThreshold : Integer.MAX_VALUE);
+        if (array.length == 0) {
+            batch.done.complete(batch.results);
+            return batch.done;
+        }
+
+        // start all tasks
+        for (int i = 0; i < array.length; i++) {
+            Task<T> task = new Task<>(batch, i, array[i]);
+            batch.tasks[i] = task;
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                batch.complete(i, Result.failed(e));
+            }
+        }
+
+        return batch.done;
+    }
+
+    /**
+     * Chain the provided supplier after the future result.
+     * If the result is successful, the function creates the
+     * next supplier from its value, which is issued on the
+     * executor. Otherwise the failure is passed on without
+     * running anything. No thread blocks while waiting.
+     *
+     * @param future The future result.
+     * @param function The function creating the next supplier.
+     * @param executor The executor to issue the next supplier on.
+     * @param <T> The value type.
+     * @param <R> The result type.
+     * @return The future result of the next supplier.
+     */
+    public static <T, R> CompletableFuture<Result<R>> thenAttemptAsync(CompletableFuture<Result<T>> future,
+                                                                       Function<? super T, ? extends ThrowingSupplier<R>> function,
+                                                                       Executor executor) {
+        Objects.requireNonNull(function, "Function can not be null");
+        Objects.requireNonNull(executor, "Executor can not be null");
+        return future.thenCompose(result -> {
+            if (!result.isPresent())
+                return CompletableFuture.completedFuture(absent(result));
+
+            ThrowingSupplier<R> next;
+            try {
+                next = function.apply(result.value);
+            } catch (Throwable t) {
+                return CompletableFuture.completedFuture(Result.failed(t));
+            }
+
+            return next.attemptAsync(executor);
+        });
+    }
+
+    /**
+     * Chain the provided supplier after the future result,
+     * issuing it on the {@link AsyncExecutors#sharedExecutor()}.
+     *
+     * @see Results#thenAttemptAsync(CompletableFuture, Function, Executor)
+     * @param future The future result.
+     * @param function The function creating the next supplier.
+     * @param <T> The value type.
+     * @param <R> The result type.
+     * @return The future result of the next supplier.
+     */
+    public static <T, R> CompletableFuture<Result<R>> thenAttemptAsync(CompletableFuture<Result<T>> future,
+                                                                       Function<? super T, ? extends ThrowingSupplier<R>> function) {
+        return thenAttemptAsync(future, function, AsyncExecutors.sharedExecutor());
+    }
+
+    /**
+     * Map the value of the future result if successful,
+     * capturing errors thrown by the function as failures.
+     *
+     * @param future The future result.
+     * @param function The mapping function.
+     * @param <T> The value type.
+     * @param <R> The result type.
+     * @return The future mapped result.
+     */
+    public static <T, R> CompletableFuture<Result<R>> mapAsync(CompletableFuture<Result<T>> future,
+                                                               Function<? super T, ? extends R> function) {
+        Objects.requireNonNull(function, "Function can not be null");
+        return future.thenApply(result -> {
+            if (!result.isPresent())
+                return absent(result);
+
+            try {
+                return Result.<R>success(function.apply(result.value));
+            } catch (Throwable t) {
+                return Result.failed(t);
+            }
+        });
+    }
+
+    /**
+     * Cast a result without a value to another
+     * value type, which is safe as it holds no value.
+     *
+     * @param result The unset or failed result.
+     * @param <R> The value type.
+     * @return The result.
+     */
+    @SuppressWarnings("unchecked")
+    static <R> Result<R> absent(Result<?> result) {
+        return (Result<R>) result;
+    }
+
+    ////////////////////////////////////////////
+
+    /**
+     * The shared state of a batch.
+     */
+    static final class Batch<T> {
+
+        static final VarHandle RESULTS = MethodHandles.arrayElementVarHandle(Result[].class);
+
+        @SuppressWarnings("unchecked")
+        Batch(int size, long timeoutNanos, int failureThreshold) {
+            this.results          = (Result<T>[]) new Result<?>[size];
+            this.tasks            = new Task<?>[size];
+            this.remaining        = new AtomicInteger(size);
+            this.timeoutNanos     = timeoutNanos;
+            this.failureThreshold = failureThreshold;
+        }
+
+        // the outcomes, set once per slot
+        final Result<T>[] results;
+        // the tasks, for cancellation
+        final Task<?>[] tasks;
+        // the amount of unfinished tasks
+        final AtomicInteger remaining;
+        // the amount of failed tasks
+        final AtomicInteger failures = new AtomicInteger();
+        // the timeout per task, 0 if none
+        final long timeoutNanos;
+        // the failures after which to cancel
+        final int failureThreshold;
+        // completed once all slots are set
+        final CompletableFuture<Result<T>[]> done = new CompletableFuture<>();
+
+        // set when the failure threshold was reached
+        volatile boolean cancelled;
+
+        /**
+         * Set the outcome of the task at the index
+         * if it has not been set already.
+         *
+         * @return If the outcome was set.
+         */
+        boolean complete(int index, Result<T> result) {
+            if (!RESULTS.compareAndSet(results, index, null, result))
+                return false;
+
+            if (!result.isPresent() && failures.incrementAndGet() == failureThreshold)
+                cancel();
+            if (remaining.decrementAndGet() == 0)
+                done.complete(results);
+            return true;
+        }
+
+        /**
+         * Fail all unfinished tasks.
+         */
+        void cancel() {
+            cancelled = true;
+            Result<T> result = Result.failed(new CancellationException(
+                    "Cancelled after " + failureThreshold + " failures"));
+            for (int i = 0; i < tasks.length; i++) {
+                Task<?> task = tasks[i];
+                if (complete(i, result) && task != null)
+                    task.interrupt();
+            }
+        }
+
+    }
+
+    /**
+     * A supplier in a batch.
+     */
+    static final class Task<T> implements Runnable {
+
+        Task(Batch<T> batch, int index, ThrowingSupplier<? extends T> supplier) {
+            this.batch    = batch;
+            this.index    = index;
+            this.supplier = supplier;
+        }
+
+        final Batch<T> batch;
+        final int index;
+        final ThrowingSupplier<? extends T> supplier;
+
+        // the thread running this task, guarded by this
+        Thread runner;
+        // if the runner was interrupted by this task, guarded by this
+        boolean interrupted;
+
+        // interrupt the running thread, if any
+        synchronized void interrupt() {
+            if (runner != null) {
+                interrupted = true;
+                runner.interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            // skip cancelled tasks
+            if (batch.cancelled || batch.results[index] != null)
+                return;
+
+            synchronized (this) {
+                runner = Thread.currentThread();
+            }
+
+            // schedule the timeout
+            Future<?> timeout = null;
+            if (batch.timeoutNanos > 0) {
+                timeout = AsyncExecutors.scheduler().schedule(() -> {
+                    if (batch.complete(index, Result.failed(new TimeoutException(
+                            "Timed out after " + batch.timeoutNanos / 1_000_000 + "ms"))))
+                        interrupt();
+                }, batch.timeoutNanos, TimeUnit.NANOSECONDS);
+            }
+
+            Result<T> result;
+            try {
+                result = Result.<T>success(supplier.issue());
+            } catch (Throwable t) {
+                result = Result.failed(t);
+            } finally {
+                synchronized (this) {
+                    runner = null;
+
+                    // clear the interrupt meant for this task,
+                    // leaving interrupts from others intact
+                    if (interrupted)
+                        Thread.interrupted();
+                }
+            }
+
+            if (timeout != null)
+                timeout.cancel(false);
+            batch.complete(index, result);
+        }
+
+    }
+
+}
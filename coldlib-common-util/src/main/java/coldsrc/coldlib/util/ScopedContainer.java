@@ -0,0 +1,133 @@
+package coldsrc.coldlib.util;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A container whose value is bound for the duration
+ * of a task on the current thread, created by
+ * {@link Container#scoped()}. This mirrors the
+ * semantics of {@code ScopedValue}: bindings are
+ * immutable, can be nested, and are removed when
+ * the task returns, so nothing is retained by the
+ * thread afterwards, which makes it safe to use on
+ * pooled and virtual threads.
+ *
+ * The bindings are held by the container itself, keyed
+ * by thread, instead of in a {@link ThreadLocal}, so querying
+ * the container on a thread where it is not bound does not
+ * leave an entry on that thread either.
+ *
+ * Bindings are not inherited by other threads, tasks
+ * submitted to executors have to be bound themselves.
+ *
+ * @param <V> The value type.
+ */
+public final class ScopedContainer<V> implements Container<V> {
+
+    // the current binding of each thread,
+    // only containing threads running a task
+    final Map<Thread, Container<V>> bindings = new ConcurrentHashMap<>();
+
+    ScopedContainer() { }
+
+    @Override
+    public V get() {
+        Container<V> c = bindings.get(Thread.currentThread());
+        if (c == null)
+            throw new NoSuchElementException("Scoped container is not bound");
+        return c.get();
+    }
+
+    @Override
+    public boolean isSet() {
+        return bindings.containsKey(Thread.currentThread());
+    }
+
+    @Override
+    public Container<V> set(V val) {
+        throw new UnsupportedOperationException("Scoped containers can only be bound");
+    }
+
+    @Override
+    public Mutability mutability() {
+        return Mutability.UNSUPPORTED;
+    }
+
+    /**
+     * Run the task with this container bound
+     * to the provided value on the current thread.
+     *
+     * @param value The value to bind.
+     * @param task The task to run.
+     */
+    public void run(V value, Runnable task) {
+        call(Container.finalImmutable(value), () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Call the task with this container bound
+     * to the provided value on the current thread.
+     *
+     * @param value The value to bind.
+     * @param task The task to call.
+     * @param <R> The result type.
+     * @return The result of the task.
+     */
+    public <R> R call(V value, Supplier<R> task) {
+        return call(Container.finalImmutable(value), task);
+    }
+
+    /**
+     * Run the task with this container bound to a value
+     * lazily loaded by the provided supplier, which is
+     * called at most once for this scope, and only if
+     * the value is queried.
+     *
+     * @param loader The value loader.
+     * @param task The task to run.
+     */
+    public void runLazy(Supplier<V> loader, Runnable task) {
+        call(Container.lazy(LazyMode.NONE, loader), () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Call the task with this container bound to a value
+     * lazily loaded by the provided supplier.
+     *
+     * @see ScopedContainer#runLazy(Supplier, Runnable)
+     * @param loader The value loader.
+     * @param task The task to call.
+     * @param <R> The result type.
+     * @return The result of the task.
+     */
+    public <R> R callLazy(Supplier<V> loader, Supplier<R> task) {
+        return call(Container.lazy(LazyMode.NONE, loader), task);
+    }
+
+    // bind the container for the duration of the task,
+    // restoring or removing the previous binding after
+    private <R> R call(Container<V> bound, Supplier<R> task) {
+        Objects.requireNonNull(task, "Task can not be null");
+        final Thread thread = Thread.currentThread();
+        Container<V> prev = bindings.put(thread, bound);
+        try {
+            return task.get();
+        } finally {
+            if (prev == null)
+                bindings.remove(thread);
+            else
+                bindings.put(thread, prev);
+        }
+    }
+
+}
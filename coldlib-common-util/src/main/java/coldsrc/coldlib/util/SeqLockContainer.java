@@ -0,0 +1,420 @@
+package coldsrc.coldlib.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * A container for read-mostly data made up of multiple
+ * fields, stored inline in primitive and reference slots
+ * and guarded by a sequence lock, created by
+ * {@link Container#seqLocked(int, int, Function, BiConsumer)}.
+ *
+ * Readers never block or write shared memory. They read
+ * the slots optimistically and retry if a write happened
+ * in the mean time, so every read sees a consistent
+ * snapshot of all slots. Writers update the slots in
+ * place without allocating, and are serialized among
+ * each other.
+ *
+ * Read functions may be called multiple times and may
+ * observe inconsistent values before being retried, so
+ * they should only read from the provided {@link View}.
+ *
+ * @param <V> The value type of the container view.
+ */
+public final class SeqLockContainer<V> implements Container<V> {
+
+    static final VarHandle SEQ;
+    static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+    static final VarHandle REFS  = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    static {
+        try {
+            SEQ = MethodHandles.lookup().findVarHandle(SeqLockContainer.class, "seq", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Read access to the slots of the container.
+     */
+    public interface View {
+
+        long getLong(int slot);
+
+        int getInt(int slot);
+
+        double getDouble(int slot);
+
+        boolean getBoolean(int slot);
+
+        <T> T getRef(int slot);
+
+    }
+
+    /**
+     * Write access to the slots of the container,
+     * only valid during a write.
+     */
+    public interface Writer {
+
+        Writer setLong(int slot, long value);
+
+        Writer setInt(int slot, int value);
+
+        Writer setDouble(int slot, double value);
+
+        Writer setBoolean(int slot, boolean value);
+
+        Writer setRef(int slot, Object value);
+
+    }
+
+    ////////////////////////////////////////////
+
+    SeqLockContainer(int longSlots,
+                     int refSlots,
+                     Function<View, V> reader,
+                     BiConsumer<Writer, V> writer) {
+        if (longSlots < 0 || refSlots < 0)
+            throw new IllegalArgumentException("Slot counts can not be negative");
+        this.longs  = new long[longSlots];
+        this.refs   = new Object[refSlots];
+        this.reader = reader;
+        this.writer = writer;
+    }
+
+    /**
+     * The sequence number, odd while
+     * a write is in progress.
+     */
+    volatile long seq;
+
+    // the slots
+    final long[] longs;
+    final Object[] refs;
+
+    // the snapshot function for get, may be null
+    final Function<View, V> reader;
+    // the decomposer for set, may be null
+    final BiConsumer<Writer, V> writer;
+
+    // the slot accessors
+    final View view = new View() {
+        @Override
+        public long getLong(int slot) {
+            return (long) LONGS.getOpaque(longs, slot);
+        }
+
+        @Override
+        public int getInt(int slot) {
+            return (int) getLong(slot);
+        }
+
+        @Override
+        public double getDouble(int slot) {
+            return Double.longBitsToDouble(getLong(slot));
+        }
+
+        @Override
+        public boolean getBoolean(int slot) {
+            return getLong(slot) != 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getRef(int slot) {
+            return (T) REFS.getOpaque(refs, slot);
+        }
+    };
+
+    final Writer slotWriter = new Writer() {
+        @Override
+        public Writer setLong(int slot, long value) {
+            LONGS.setOpaque(longs, slot, value);
+            return this;
+        }
+
+        @Override
+        public Writer setInt(int slot, int value) {
+            return setLong(slot, value);
+        }
+
+        @Override
+        public Writer setDouble(int slot, double value) {
+            return setLong(slot, Double.doubleToRawLongBits(value));
+        }
+
+        @Override
+        public Writer setBoolean(int slot, boolean value) {
+            return setLong(slot, value ? 1 : 0);
+        }
+
+        @Override
+        public Writer setRef(int slot, Object value) {
+            REFS.setOpaque(refs, slot, value);
+            return this;
+        }
+    };
+
+    /* Sequence Lock */
+
+    // begin an optimistic read, waiting
+    // for writes in progress to finish
+    private long beginRead() {
+        long s;
+        for (int spins = 0; ((s = (long) SEQ.getAcquire(this)) & 1) != 0; spins++)
+            backoff(spins);
+        return s;
+    }
+
+    // validate an optimistic read
+    private boolean validate(long s) {
+        VarHandle.acquireFence();
+        return (long) SEQ.getOpaque(this) == s;
+    }
+
+    private static void backoff(int spins) {
+        if (spins < 64)
+            Thread.onSpinWait();
+        else
+            Thread.yield();
+    }
+
+    /**
+     * Read a consistent snapshot of the slots
+     * using the provided function.
+     *
+     * @param function The read function.
+     * @param <R> The result type.
+     * @return The result.
+     */
+    public <R> R read(Function<View, R> function) {
+        for (;;) {
+            long s = beginRead();
+            R result;
+            try {
+                result = function.apply(view);
+            } catch (RuntimeException e) {
+                // might be caused by an inconsistent read
+                if (validate(s))
+                    throw e;
+                continue;
+            }
+
+            if (validate(s))
+                return result;
+        }
+    }
+
+    /**
+     * Read a consistent snapshot of the slots into
+     * a {@code long} using the provided function,
+     * without allocating.
+     *
+     * @see SeqLockContainer#read(Function)
+     * @param function The read function.
+     * @return The result.
+     */
+    public long readLong(ToLongFunction<View> function) {
+        for (;;) {
+            long s = beginRead();
+            long result;
+            try {
+                result = function.applyAsLong(view);
+            } catch (RuntimeException e) {
+                if (validate(s))
+                    throw e;
+                continue;
+            }
+
+            if (validate(s))
+                return result;
+        }
+    }
+
+    /**
+     * Read a consistent snapshot of the slots into
+     * a {@code double} using the provided function,
+     * without allocating.
+     *
+     * @see SeqLockContainer#read(Function)
+     * @param function The read function.
+     * @return The result.
+     */
+    public double readDouble(ToDoubleFunction<View> function) {
+        for (;;) {
+            long s = beginRead();
+            double result;
+            try {
+                result = function.applyAsDouble(view);
+            } catch (RuntimeException e) {
+                if (validate(s))
+                    throw e;
+                continue;
+            }
+
+            if (validate(s))
+                return result;
+        }
+    }
+
+    /**
+     * Get the value of a single long slot. A single
+     * slot is always consistent, so this never retries.
+     *
+     * @param slot The slot.
+     * @return The value.
+     */
+    public long getLong(int slot) {
+        return view.getLong(slot);
+    }
+
+    /**
+     * Get the value of a single double slot.
+     *
+     * @see SeqLockContainer#getLong(int)
+     * @param slot The slot.
+     * @return The value.
+     */
+    public double getDouble(int slot) {
+        return view.getDouble(slot);
+    }
+
+    /**
+     * Get the value of a single reference slot.
+     *
+     * @see SeqLockContainer#getLong(int)
+     * @param slot The slot.
+     * @param <T> The value type.
+     * @return The value.
+     */
+    public <T> T getRef(int slot) {
+        return view.getRef(slot);
+    }
+
+    /**
+     * Update the slots in place using the provided
+     * function. Writes are exclusive, concurrent
+     * writers wait for each other. The function must
+     * not start another write on this container.
+     *
+     * If the function throws, the slots it wrote
+     * so far are not rolled back and are published
+     * like a completed write.
+     *
+     * @param function The write function.
+     * @return This.
+     */
+    public SeqLockContainer<V> write(Consumer<Writer> function) {
+        long s = beginWrite();
+        try {
+            function.accept(slotWriter);
+        } finally {
+            endWrite(s);
+        }
+
+        return this;
+    }
+
+    // acquire the write lock by making
+    // the sequence odd, returns the old sequence
+    private long beginWrite() {
+        long s;
+        for (int spins = 0; ; spins++) {
+            s = seq;
+            if ((s & 1) == 0 && SEQ.compareAndSet(this, s, s + 1))
+                return s;
+            backoff(spins);
+        }
+    }
+
+    // release with the next even sequence
+    private void endWrite(long s) {
+        SEQ.setRelease(this, s + 2);
+    }
+
+    /* Container */
+
+    @Override
+    public V get() {
+        if (reader == null)
+            throw new UnsupportedOperationException("No snapshot function set");
+        return read(reader);
+    }
+
+    @Override
+    public boolean isSet() {
+        return true;
+    }
+
+    /**
+     * Store the value into the slots using the
+     * decompose function, without allocating.
+     *
+     * @see SeqLockContainer#write(Consumer)
+     * @param val The value.
+     * @return This.
+     */
+    @Override
+    public Container<V> set(V val) {
+        if (writer == null)
+            throw new UnsupportedOperationException("No decompose function set");
+
+        // inlined write to avoid capturing the value
+        long s = beginWrite();
+        try {
+            writer.accept(slotWriter, val);
+        } finally {
+            endWrite(s);
+        }
+
+        return this;
+    }
+
+    @Override
+    public Mutability mutability() {
+        return writer != null ? Mutability.MODIFY : Mutability.UNSUPPORTED;
+    }
+
+    /**
+     * The amount of completed writes.
+     *
+     * @return The version stamp.
+     */
+    @Override
+    public long version() {
+        return seq >>> 1;
+    }
+
+    /**
+     * Get the amount of long slots.
+     *
+     * @return The slot count.
+     */
+    public int longSlots() {
+        return longs.length;
+    }
+
+    /**
+     * Get the amount of reference slots.
+     *
+     * @return The slot count.
+     */
+    public int refSlots() {
+        return refs.length;
+    }
+
+    // ensure the functions are not null
+    static <T> T requireFunction(T function) {
+        return Objects.requireNonNull(function, "Function can not be null");
+    }
+
+}
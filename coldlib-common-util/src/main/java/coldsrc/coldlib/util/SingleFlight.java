@@ -0,0 +1,282 @@
+package coldsrc.coldlib.util;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces concurrent loads of the same key. While a
+ * load for a key is in flight, every other caller asking
+ * for that key gets the same future instead of starting
+ * another load, so the loader runs once per key at a time.
+ *
+ * Outcomes are not cached, once a load completes the
+ * next request for the key starts a new one. Errors are
+ * captured in the {@link Result}, the futures are never
+ * completed exceptionally.
+ *
+ * Example:
+ * <pre>{@code
+ * SingleFlight<UUID, Profile> profiles = SingleFlight.create(database::loadProfile, executor, 256);
+ * profiles.load(uuid).thenAccept(result -> ...);
+ * }</pre>
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+public final class SingleFlight<K, V> {
+
+    /**
+     * Loads the value for a key.
+     *
+     * @param <K> The key type.
+     * @param <V> The value type.
+     */
+    @FunctionalInterface
+    public interface Loader<K, V> {
+
+        /**
+         * Load the value for the key.
+         *
+         * @param key The key.
+         * @return The value.
+         * @throws Throwable Any errors may be thrown.
+         */
+        V load(K key) throws Throwable;
+
+    }
+
+    /**
+     * Create a new single flight loader with a
+     * bound on the amount of keys loading at once.
+     *
+     * @param loader The loader.
+     * @param executor The executor to load on.
+     * @param maxInFlight The maximum amount of keys loading at once.
+     * @param <K> The key type.
+     * @param <V> The value type.
+     * @return The single flight loader.
+     */
+    public static <K, V> SingleFlight<K, V> create(Loader<K, V> loader,
+                                                   Executor executor,
+                                                   int maxInFlight) {
+        return new SingleFlight<>(loader, executor, maxInFlight);
+    }
+
+    /**
+     * Create a new unbounded single flight loader.
+     *
+     * @see SingleFlight#create(Loader, Executor, int)
+     * @param loader The loader.
+     * @param executor The executor to load on.
+     * @param <K> The key type.
+     * @param <V> The value type.
+     * @return The single flight loader.
+     */
+    public static <K, V> SingleFlight<K, V> create(Loader<K, V> loader,
+                                                   Executor executor) {
+        return new SingleFlight<>(loader, executor, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create a new unbounded single flight loader
+     * loading on the {@link AsyncExecutors#sharedExecutor()}.
+     *
+     * @see SingleFlight#create(Loader, Executor, int)
+     * @param loader The loader.
+     * @param <K> The key type.
+     * @param <V> The value type.
+     * @return The single flight loader.
+     */
+    public static <K, V> SingleFlight<K, V> create(Loader<K, V> loader) {
+        return create(loader, AsyncExecutors.sharedExecutor());
+    }
+
+    ////////////////////////////////////////////
+
+    SingleFlight(Loader<K, V> loader, Executor executor, int maxInFlight) {
+        if (maxInFlight <= 0)
+            throw new IllegalArgumentException("Maximum in flight must be positive");
+        this.loader      = Objects.requireNonNull(loader, "Loader can not be null");
+        this.executor    = Objects.requireNonNull(executor, "Executor can not be null");
+        this.maxInFlight = maxInFlight;
+    }
+
+    // the value loader
+    final Loader<K, V> loader;
+    // the executor to load on
+    final Executor executor;
+    // the maximum amount of loads in flight
+    final int maxInFlight;
+
+    // the loads in flight by key
+    final ConcurrentHashMap<K, CompletableFuture<Result<V>>> inFlight = new ConcurrentHashMap<>();
+    // the amount of loads in flight, may briefly
+    // exceed the map size while a load is starting
+    final AtomicInteger permits = new AtomicInteger();
+
+    /* Stats */
+    final LongAdder loadCount      = new LongAdder();
+    final LongAdder coalescedCount = new LongAdder();
+    final LongAdder rejectedCount  = new LongAdder();
+
+    /**
+     * Get the future outcome of loading the provided key,
+     * joining the load in flight for the key if there is
+     * one. If the maximum amount of loads are in flight,
+     * or the executor rejects the load, the returned future
+     * is completed with a failed result immediately.
+     *
+     * Every caller gets its own copy of the shared load,
+     * so completing or cancelling it has no effect on the
+     * load or other callers.
+     *
+     * @param key The key.
+     * @return The future outcome.
+     */
+    public CompletableFuture<Result<V>> load(K key) {
+        Objects.requireNonNull(key, "Key can not be null");
+
+        // join the load in flight
+        CompletableFuture<Result<V>> future = inFlight.get(key);
+        if (future != null) {
+            coalescedCount.increment();
+            return future.copy();
+        }
+
+        // reserve a slot
+        if (!tryAcquire()) {
+            // the key might have started
+            // loading in the mean time
+            future = inFlight.get(key);
+            if (future != null) {
+                coalescedCount.increment();
+                return future.copy();
+            }
+
+            rejectedCount.increment();
+            return CompletableFuture.completedFuture(Result.failed(
+                    new RejectedExecutionException("Too many loads in flight (max " + maxInFlight + ")")));
+        }
+
+        // claim the key
+        CompletableFuture<Result<V>> created = new CompletableFuture<>();
+        future = inFlight.putIfAbsent(key, created);
+        if (future != null) {
+            permits.decrementAndGet();
+            coalescedCount.increment();
+            return future.copy();
+        }
+
+        loadCount.increment();
+        try {
+            executor.execute(() -> complete(key, created, attempt(key)));
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            complete(key, created, Result.failed(e));
+        }
+
+        return created.copy();
+    }
+
+    /**
+     * Load the provided key, waiting for the outcome.
+     *
+     * @see SingleFlight#load(Object)
+     * @param key The key.
+     * @return The outcome.
+     */
+    public Result<V> loadBlocking(K key) {
+        return load(key).join();
+    }
+
+    private boolean tryAcquire() {
+        int p;
+        do {
+            p = permits.get();
+            if (p >= maxInFlight)
+                return false;
+        } while (!permits.compareAndSet(p, p + 1));
+        return true;
+    }
+
+    private Result<V> attempt(K key) {
+        try {
+            return Result.success(loader.load(key));
+        } catch (Throwable t) {
+            return Result.failed(t);
+        }
+    }
+
+    // remove the load before completing it, so callers
+    // seeing the outcome never join the finished load
+    private void complete(K key, CompletableFuture<Result<V>> future, Result<V> result) {
+        inFlight.remove(key, future);
+        permits.decrementAndGet();
+        future.complete(result);
+    }
+
+    /**
+     * Get if a load for the provided key is in flight.
+     *
+     * @param key The key.
+     * @return True/false.
+     */
+    public boolean isInFlight(K key) {
+        return inFlight.containsKey(key);
+    }
+
+    /* Getters */
+
+    /**
+     * Get the amount of keys currently loading.
+     *
+     * @return The count.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Get the maximum amount of keys loading at once.
+     *
+     * @return The maximum.
+     */
+    public int maxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Get the amount of loads which were started.
+     *
+     * @return The count.
+     */
+    public long loadCount() {
+        return loadCount.sum();
+    }
+
+    /**
+     * Get the amount of requests which joined
+     * a load already in flight.
+     *
+     * @return The count.
+     */
+    public long coalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * Get the amount of requests which were
+     * rejected because of the bound or executor.
+     *
+     * @return The count.
+     */
+    public long rejectedCount() {
+        return rejectedCount.sum();
+    }
+
+}
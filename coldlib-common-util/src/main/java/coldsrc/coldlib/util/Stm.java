@@ -0,0 +1,432 @@
+package coldsrc.coldlib.util;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs transactions updating multiple containers together,
+ * using optimistic software transactional memory.
+ *
+ * Reads inside a transaction record the version of each
+ * container, and writes are buffered. On commit the locks
+ * of all touched containers are acquired in a fixed order,
+ * the read versions are validated, and the writes applied.
+ * If another transaction changed a container which was read,
+ * the transaction is retried from the start, so the body
+ * should be free of side effects other than container writes.
+ *
+ * Transactions touching different containers never wait for
+ * each other. Locks are striped by container identity, so
+ * unrelated containers can share a stripe, which only makes
+ * their commits serialize.
+ *
+ * The containers must track versions ({@link Container#version()}),
+ * support modification and be thread safe, which makes
+ * {@link Container#atomic()} the natural choice. Writes made
+ * outside of transactions are detected by the versions, but
+ * are not atomic with transactions.
+ *
+ * Example:
+ * <pre>{@code
+ * Stm stm = Stm.create();
+ * stm.run(tx -> {
+ *     tx.update(from, b -> b - amount);
+ *     tx.update(to, b -> b + amount);
+ * });
+ * }</pre>
+ */
+public final class Stm {
+
+    /**
+     * Create a new transaction manager
+     * with the default amount of lock stripes.
+     *
+     * @return The manager.
+     */
+    public static Stm create() {
+        return new Stm(64);
+    }
+
+    /**
+     * Create a new transaction manager with
+     * the provided amount of lock stripes,
+     * rounded up to a power of two.
+     *
+     * @param stripes The amount of lock stripes.
+     * @return The manager.
+     */
+    public static Stm create(int stripes) {
+        if (stripes <= 0)
+            throw new IllegalArgumentException("Stripe count must be positive");
+        return new Stm(stripes);
+    }
+
+    /**
+     * Thrown internally to restart a transaction.
+     */
+    static final class Retry extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        static final Retry INSTANCE = new Retry();
+
+        private Retry() {
+            super(null, null, false, false);
+        }
+
+    }
+
+    ////////////////////////////////////////////
+
+    Stm(int stripes) {
+        int n = Integer.highestOneBit(stripes);
+        if (n < stripes)
+            n <<= 1;
+        this.locks = new ReentrantLock[n];
+        for (int i = 0; i < n; i++)
+            locks[i] = new ReentrantLock();
+        this.mask = n - 1;
+    }
+
+    // the lock stripes
+    final ReentrantLock[] locks;
+    final int mask;
+
+    // the transaction running on each thread
+    final ThreadLocal<Transaction> current = new ThreadLocal<>();
+
+    /* Stats */
+    final LongAdder commits         = new LongAdder();
+    final LongAdder readOnlyCommits = new LongAdder();
+    final LongAdder conflicts       = new LongAdder();
+    final LongAdder failures        = new LongAdder();
+    final LongAdder lockWaitNanos   = new LongAdder();
+
+    // the stripe of a container
+    int stripe(Container<?> container) {
+        int h = System.identityHashCode(container);
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * A running transaction, only valid
+     * inside the transaction body.
+     */
+    public final class Transaction {
+
+        // the versions read by container
+        final Map<Container<?>, Long> reads = new IdentityHashMap<>();
+        // the buffered writes by container
+        final Map<Container<?>, Object> writes = new IdentityHashMap<>();
+
+        // the current attempt, starting at zero
+        int attempt;
+
+        /**
+         * Get the value of the container as seen
+         * by this transaction.
+         *
+         * @param container The container.
+         * @param <V> The value type.
+         * @return The value.
+         */
+        @SuppressWarnings("unchecked")
+        public <V> V get(Container<V> container) {
+            Objects.requireNonNull(container, "Container can not be null");
+            if (writes.containsKey(container))
+                return (V) writes.get(container);
+
+            ReentrantLock lock = locks[stripe(container)];
+            for (int spins = 0; ; spins++) {
+                // wait for commits in progress
+                if (lock.isLocked()) {
+                    backoff(spins);
+                    continue;
+                }
+
+                long version = version(container);
+                V value = container.get();
+                if (lock.isLocked() || version(container) != version) {
+                    backoff(spins);
+                    continue;
+                }
+
+                // the container changed since the first read
+                Long prev = reads.putIfAbsent(container, version);
+                if (prev != null && prev != version)
+                    throw Retry.INSTANCE;
+                return value;
+            }
+        }
+
+        /**
+         * Buffer a write of the value to the container,
+         * which is applied when the transaction commits.
+         *
+         * @param container The container.
+         * @param value The value.
+         * @param <V> The value type.
+         */
+        public <V> void set(Container<V> container, V value) {
+            Objects.requireNonNull(container, "Container can not be null");
+            if (container.mutability() != Container.Mutability.MODIFY)
+                throw new IllegalArgumentException("Container does not support modification");
+            version(container);
+            writes.put(container, value);
+        }
+
+        /**
+         * Update the value of the container
+         * as seen by this transaction.
+         *
+         * @param container The container.
+         * @param function The update function.
+         * @param <V> The value type.
+         * @return The new value.
+         */
+        public <V> V update(Container<V> container, UnaryOperator<V> function) {
+            V value = function.apply(get(container));
+            set(container, value);
+            return value;
+        }
+
+        /**
+         * Get the attempt of this transaction,
+         * zero unless it has been retried.
+         *
+         * @return The attempt.
+         */
+        public int attempt() {
+            return attempt;
+        }
+
+        // check if all reads are still current
+        boolean validate(boolean locked) {
+            for (Map.Entry<Container<?>, Long> entry : reads.entrySet()) {
+                Container<?> container = entry.getKey();
+                if (container.version() != entry.getValue())
+                    return false;
+                // locked by a commit in progress
+                if (!locked && locks[stripe(container)].isLocked())
+                    return false;
+            }
+
+            return true;
+        }
+
+        // try to commit, returns false on conflict
+        @SuppressWarnings("unchecked")
+        boolean commit() {
+            if (writes.isEmpty()) {
+                // read only, validating suffices
+                if (!validate(false))
+                    return false;
+                readOnlyCommits.increment();
+                return true;
+            }
+
+            // collect the stripes to lock in order
+            int[] stripes = new int[reads.size() + writes.size()];
+            int n = 0;
+            for (Container<?> container : reads.keySet())
+                stripes[n++] = stripe(container);
+            for (Container<?> container : writes.keySet())
+                stripes[n++] = stripe(container);
+            Arrays.sort(stripes);
+
+            long t = System.nanoTime();
+            int locked = 0;
+            int last = -1;
+            try {
+                for (int i = 0; i < n; i++) {
+                    int s = stripes[i];
+                    if (s == last)
+                        continue;
+                    locks[s].lock();
+                    stripes[locked++] = last = s;
+                }
+
+                lockWaitNanos.add(System.nanoTime() - t);
+                if (!validate(true))
+                    return false;
+
+                // apply writes
+                for (Map.Entry<Container<?>, Object> entry : writes.entrySet())
+                    ((Container<Object>) entry.getKey()).set(entry.getValue());
+                commits.increment();
+                return true;
+            } finally {
+                for (int i = locked - 1; i >= 0; i--)
+                    locks[stripes[i]].unlock();
+            }
+        }
+
+        void reset() {
+            reads.clear();
+            writes.clear();
+        }
+
+    }
+
+    // get the version of a container
+    // ensuring it is tracked
+    static long version(Container<?> container) {
+        long version = container.version();
+        if (version == Container.VERSION_UNTRACKED)
+            throw new IllegalArgumentException("Container does not track versions");
+        return version;
+    }
+
+    private static void backoff(int spins) {
+        if (spins < 64)
+            Thread.onSpinWait();
+        else
+            Thread.yield();
+    }
+
+    /**
+     * Run the provided function in a transaction and
+     * return its result, retrying on conflicts. If the
+     * function throws, the writes are discarded and the
+     * error is rethrown, unless it was caused by reading
+     * an inconsistent state, in which case it is retried.
+     *
+     * Calls nested in a running transaction of
+     * this manager join the outer transaction.
+     *
+     * @param function The transaction body.
+     * @param <R> The result type.
+     * @return The result.
+     */
+    public <R> R call(Function<Transaction, R> function) {
+        Objects.requireNonNull(function, "Function can not be null");
+
+        // join the outer transaction
+        Transaction outer = current.get();
+        if (outer != null)
+            return function.apply(outer);
+
+        Transaction tx = new Transaction();
+        current.set(tx);
+        try {
+            for (int spins = 0; ; spins++) {
+                tx.attempt = spins;
+                R result;
+                try {
+                    result = function.apply(tx);
+                } catch (Retry r) {
+                    conflicts.increment();
+                    tx.reset();
+                    backoff(spins);
+                    continue;
+                } catch (RuntimeException | Error e) {
+                    // might be caused by an inconsistent read
+                    if (!tx.validate(false)) {
+                        conflicts.increment();
+                        tx.reset();
+                        backoff(spins);
+                        continue;
+                    }
+
+                    failures.increment();
+                    throw e;
+                }
+
+                if (tx.commit())
+                    return result;
+
+                conflicts.increment();
+                tx.reset();
+                backoff(spins);
+            }
+        } finally {
+            current.remove();
+        }
+    }
+
+    /**
+     * Run the provided action in a transaction,
+     * retrying on conflicts.
+     *
+     * @see Stm#call(Function)
+     * @param action The transaction body.
+     */
+    public void run(Consumer<Transaction> action) {
+        Objects.requireNonNull(action, "Action can not be null");
+        call(tx -> {
+            action.accept(tx);
+            return null;
+        });
+    }
+
+    /* Getters */
+
+    /**
+     * Get the amount of committed transactions
+     * which wrote to containers.
+     *
+     * @return The count.
+     */
+    public long commitCount() {
+        return commits.sum();
+    }
+
+    /**
+     * Get the amount of committed read only transactions.
+     *
+     * @return The count.
+     */
+    public long readOnlyCommitCount() {
+        return readOnlyCommits.sum();
+    }
+
+    /**
+     * Get the amount of attempts which were
+     * retried because of conflicting transactions.
+     *
+     * @return The count.
+     */
+    public long conflictCount() {
+        return conflicts.sum();
+    }
+
+    /**
+     * Get the amount of transactions which were
+     * aborted because the body threw an error.
+     *
+     * @return The count.
+     */
+    public long failureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Get the total time spent acquiring
+     * commit locks in nanoseconds.
+     *
+     * @return The time.
+     */
+    public long lockWaitNanos() {
+        return lockWaitNanos.sum();
+    }
+
+    /**
+     * Get the ratio of conflicting attempts
+     * to all attempts.
+     *
+     * @return The conflict rate between 0 and 1.
+     */
+    public double conflictRate() {
+        long c = conflicts.sum();
+        long total = c + commits.sum() + readOnlyCommits.sum() + failures.sum();
+        return total == 0 ? 0 : (double) c / total;
+    }
+
+}
@@ -0,0 +1,58 @@
+package coldsrc.coldlib.util;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A container holding a separate value for every
+ * thread, created by {@link Container#threadLocal(Supplier)}.
+ *
+ * The value of a thread is created lazily by the
+ * initializer the first time it is queried on that
+ * thread, so no synchronization is involved. Call
+ * {@link ThreadLocalContainer#remove()} when a pooled
+ * thread is done with its value to release it.
+ *
+ * @param <V> The value type.
+ */
+public final class ThreadLocalContainer<V> implements Container<V> {
+
+    ThreadLocalContainer(Supplier<V> initializer) {
+        Objects.requireNonNull(initializer, "Initializer can not be null");
+        this.local = ThreadLocal.withInitial(initializer);
+    }
+
+    // the thread local storing the values
+    final ThreadLocal<V> local;
+
+    @Override
+    public V get() {
+        return local.get();
+    }
+
+    @Override
+    public boolean isSet() {
+        return true;
+    }
+
+    @Override
+    public Container<V> set(V val) {
+        local.set(val);
+        return this;
+    }
+
+    @Override
+    public Mutability mutability() {
+        return Mutability.MODIFY;
+    }
+
+    /**
+     * Remove the value of the current thread, the
+     * initializer will be called again when it is
+     * next queried on this thread.
+     */
+    public void remove() {
+        local.remove();
+    }
+
+}
@@ -0,0 +1,164 @@
+package coldsrc.coldlib.util.functional;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A callback which dispatches asynchronously on an
+ * executor, created by {@link Callback#async(Executor)}.
+ *
+ * Calls only enqueue the value and return immediately.
+ * A single drain task at a time runs the handlers for the
+ * queued values in order of the calls, so handlers never
+ * run concurrently with each other and see values in strict
+ * order. The drain task handles up to {@link #BATCH_SIZE}
+ * values per run, after which it resubmits itself to let
+ * other tasks on the executor progress.
+ *
+ * Errors thrown by handlers are passed to the error
+ * handler and do not stop the dispatch of later values.
+ *
+ * @param <V> The value type.
+ */
+public final class AsyncCallback<V> implements Callback<V> {
+
+    static final VarHandle SCHEDULED;
+
+    static {
+        try {
+            SCHEDULED = MethodHandles.lookup().findVarHandle(AsyncCallback.class, "scheduled", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * The maximum amount of values dispatched per drain task.
+     */
+    public static final int BATCH_SIZE = 64;
+
+    // stands in for null values in the queue
+    static final Object NULL = new Object();
+
+    ////////////////////////////////////////////
+
+    AsyncCallback(Executor executor, Consumer<? super Throwable> errorHandler) {
+        this.executor     = Objects.requireNonNull(executor, "Executor can not be null");
+        this.errorHandler = Objects.requireNonNull(errorHandler, "Error handler can not be null");
+    }
+
+    // the executor to drain on
+    final Executor executor;
+    // handles errors thrown by handlers
+    final Consumer<? super Throwable> errorHandler;
+
+    // the handlers and futures, only
+    // called from the drain task
+    final ConcurrentCallback<V> pipeline = new ConcurrentCallback<>();
+    // the queued values
+    final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+    // the drain task
+    final Runnable drainTask = this::drain;
+
+    // whether a drain task is scheduled or running
+    volatile boolean scheduled;
+
+    @Override
+    public Callback<V> then(Function<V, HandlerResult> handler) {
+        pipeline.then(handler);
+        return this;
+    }
+
+    @Override
+    public CompletableFuture<V> await() {
+        return pipeline.await();
+    }
+
+    /**
+     * Enqueue the value to be dispatched
+     * to the handlers on the executor.
+     *
+     * @param value The value to call with.
+     */
+    @Override
+    public void call(V value) {
+        queue.offer(value != null ? value : NULL);
+        schedule();
+    }
+
+    // submit the drain task if none is scheduled
+    void schedule() {
+        if (!SCHEDULED.compareAndSet(this, false, true))
+            return;
+
+        try {
+            executor.execute(drainTask);
+        } catch (RuntimeException e) {
+            // rejected, the values stay
+            // queued for the next call
+            scheduled = false;
+            reportError(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void drain() {
+        try {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                Object value = queue.poll();
+                if (value == null)
+                    break;
+
+                try {
+                    pipeline.call(value != NULL ? (V) value : null);
+                } catch (Throwable t) {
+                    reportError(t);
+                }
+            }
+        } finally {
+            // release the drain, then pick up values
+            // queued since the last poll
+            scheduled = false;
+            if (!queue.isEmpty())
+                schedule();
+        }
+    }
+
+    // pass the error to the error handler, which
+    // must never escape and kill the drain
+    void reportError(Throwable t) {
+        try {
+            errorHandler.accept(t);
+        } catch (Throwable ignored) {
+            // nothing left to report to
+        }
+    }
+
+    /**
+     * Get if no values are waiting to be dispatched.
+     *
+     * @return True/false.
+     */
+    public boolean isIdle() {
+        return queue.isEmpty() && !scheduled;
+    }
+
+    /* Getters */
+
+    /**
+     * Get the executor the handlers run on.
+     *
+     * @return The executor.
+     */
+    public Executor executor() {
+        return executor;
+    }
+
+}
@@ -1,9 +1,15 @@
 package coldsrc.coldlib.util.functional;
 
+import coldsrc.coldlib.util.AsyncExecutors;
+
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -80,9 +86,8 @@ public interface Callback<V> extends Callable<V> {
             @Override
             public void call(V value) {
                 {
-                    Function<V, HandlerResult> handler = consumers.get(0);
-                    for (Iterator<Function<V, HandlerResult>> it = consumers.listIterator(); it.hasNext(); handler = it.next())
-                        if (handler.apply(value) == HandlerResult.REMOVE)
+                    for (Iterator<Function<V, HandlerResult>> it = consumers.iterator(); it.hasNext();)
+                        if (it.next().apply(value) == HandlerResult.REMOVE)
                             it.remove();
                 }
 
@@ -96,6 +101,130 @@ public interface Callback<V> extends Callable<V> {
         };
     }
 
+    /**
+     * Allows multiple handlers and futures to be
+     * in use at the same time, safe to register and
+     * call from multiple threads concurrently.
+     *
+     * @see ConcurrentCallback
+     * @param <V> The value type.
+     * @return The callback.
+     */
+    static <V> ConcurrentCallback<V> concurrent() {
+        return new ConcurrentCallback<>();
+    }
+
+    /**
+     * Dispatches to multiple handlers and futures
+     * on the executor in order of the calls, which
+     * only enqueue the value. Errors thrown by handlers
+     * go to the uncaught exception handler of the
+     * dispatching thread.
+     *
+     * @see AsyncCallback
+     * @param executor The executor to dispatch on.
+     * @param <V> The value type.
+     * @return The callback.
+     */
+    static <V> AsyncCallback<V> async(Executor executor) {
+        return new AsyncCallback<>(executor, t -> {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+        });
+    }
+
+    /**
+     * Dispatches to multiple handlers and futures
+     * on the executor in order of the calls, which
+     * only enqueue the value.
+     *
+     * @see AsyncCallback
+     * @param executor The executor to dispatch on.
+     * @param errorHandler Handles errors thrown by handlers.
+     * @param <V> The value type.
+     * @return The callback.
+     */
+    static <V> AsyncCallback<V> async(Executor executor, Consumer<? super Throwable> errorHandler) {
+        return new AsyncCallback<>(executor, errorHandler);
+    }
+
+    /**
+     * Dispatches the latest value once per window,
+     * starting with the first call after a dispatch.
+     * Handlers run on the {@link AsyncExecutors#sharedExecutor()}.
+     *
+     * @see CoalescingCallback
+     * @param window The window.
+     * @param <V> The value type.
+     * @return The callback.
+     */
+    static <V> CoalescingCallback<V> coalescing(Duration window) {
+        return coalescing(window, (previous, value) -> value);
+    }
+
+    /**
+     * Dispatches the values merged by the function once
+     * per window, starting with the first call after a
+     * dispatch. Handlers run on the {@link AsyncExecutors#sharedExecutor()}.
+     *
+     * @see CoalescingCallback
+     * @param window The window.
+     * @param merge Merges the pending value with a new value.
+     * @param <V> The value type.
+     * @return The callback.
+     */
+    static <V> CoalescingCallback<V> coalescing(Duration window, BinaryOperator<V> merge) {
+        return coalescing(window, merge, AsyncExecutors.sharedExecutor());
+    }
+
+    /**
+     * Dispatches the values merged by the function once
+     * per window, starting with the first call after a
+     * dispatch. Handlers run on the provided executor, for
+     * example one running tasks on the server thread.
+     *
+     * @see CoalescingCallback
+     * @param window The window.
+     * @param merge Merges the pending value with a new value.
+     * @param executor The executor to dispatch on.
+     * @param <V> The value type.
+     * @return The callback.
+     */
+    static <V> CoalescingCallback<V> coalescing(Duration window, BinaryOperator<V> merge, Executor executor) {
+        Objects.requireNonNull(window, "Window can not be null");
+        Objects.requireNonNull(executor, "Executor can not be null");
+        if (window.isNegative() || window.isZero())
+            throw new IllegalArgumentException("Window must be positive");
+        return new CoalescingCallback<>(window.toNanos(), merge, executor);
+    }
+
+    /**
+     * Dispatches the values merged by the function when
+     * {@link CoalescingCallback#flush()} is called, for
+     * example once per server tick.
+     *
+     * @see CoalescingCallback
+     * @param merge Merges the pending value with a new value.
+     * @param <V> The value type.
+     * @return The callback.
+     */
+    static <V> CoalescingCallback<V> coalescing(BinaryOperator<V> merge) {
+        return new CoalescingCallback<>(0, merge, null);
+    }
+
+    /**
+     * Dispatches only the latest value when
+     * {@link CoalescingCallback#flush()} is called,
+     * for example once per server tick.
+     *
+     * @see CoalescingCallback
+     * @param <V> The value type.
+     * @return The callback.
+     */
+    static <V> CoalescingCallback<V> latestOnly() {
+        return coalescing((previous, value) -> value);
+    }
+
     /////////////////////////////////////////
 
     /**
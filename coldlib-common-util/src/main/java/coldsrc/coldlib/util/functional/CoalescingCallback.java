@@ -0,0 +1,176 @@
+package coldsrc.coldlib.util.functional;
+
+import coldsrc.coldlib.util.AsyncExecutors;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * A callback which merges rapid calls into a single
+ * dispatch, created by {@link Callback#coalescing(java.time.Duration)},
+ * {@link Callback#latestOnly()} and their variants.
+ *
+ * Calls only merge the value into the pending value,
+ * either replacing it or combining both with the merge
+ * function, which may be invoked more than once under
+ * contention and should be free of side effects. The
+ * pending value is dispatched to the handlers and futures
+ * by {@link #flush()}, which is called once per window
+ * after the first call if a window is set, or manually,
+ * for example once per server tick. If the executor rejects
+ * a windowed flush, the value stays pending and the next
+ * call starts a new window.
+ *
+ * @param <V> The value type.
+ */
+public final class CoalescingCallback<V> implements Callback<V> {
+
+    static final VarHandle PENDING;
+    static final VarHandle REJECTED;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            PENDING  = lookup.findVarHandle(CoalescingCallback.class, "pending", Object.class);
+            REJECTED = lookup.findVarHandle(CoalescingCallback.class, "rejected", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // marks that no value is pending
+    static final Object EMPTY = new Object();
+
+    ////////////////////////////////////////////
+
+    CoalescingCallback(long windowNanos, BinaryOperator<V> merge, Executor executor) {
+        this.windowNanos = windowNanos;
+        this.merge       = Objects.requireNonNull(merge, "Merge function can not be null");
+        this.executor    = executor;
+    }
+
+    // the window in nanoseconds, 0 if flushed manually
+    final long windowNanos;
+    // merges the pending value with a new value
+    final BinaryOperator<V> merge;
+    // the executor windowed flushes run on
+    final Executor executor;
+    // the windowed flush tasks
+    final Runnable submitTask = this::submitFlush;
+    final Runnable flushTask  = this::flush;
+
+    // the handlers and futures
+    final ConcurrentCallback<V> pipeline = new ConcurrentCallback<>();
+
+    // the pending value or EMPTY
+    volatile Object pending = EMPTY;
+    // if the executor rejected the last windowed
+    // flush, so the next call has to start a window
+    volatile boolean rejected;
+
+    /* Stats */
+    final LongAdder calls      = new LongAdder();
+    final LongAdder dispatches = new LongAdder();
+
+    @Override
+    public Callback<V> then(Function<V, HandlerResult> handler) {
+        pipeline.then(handler);
+        return this;
+    }
+
+    @Override
+    public CompletableFuture<V> await() {
+        return pipeline.await();
+    }
+
+    /**
+     * Merge the value into the pending value,
+     * starting a window if none was pending.
+     *
+     * @param value The value to call with.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void call(V value) {
+        calls.increment();
+        for (;;) {
+            Object current = pending;
+            Object next = current == EMPTY ? value : merge.apply((V) current, value);
+            if (PENDING.compareAndSet(this, current, next)) {
+                if (windowNanos > 0 && (current == EMPTY || (rejected && REJECTED.compareAndSet(this, true, false))))
+                    AsyncExecutors.scheduler().schedule(submitTask, windowNanos, TimeUnit.NANOSECONDS);
+                return;
+            }
+        }
+    }
+
+    // hand the flush off to the executor, never
+    // flushing inline as this runs on the scheduler
+    void submitFlush() {
+        try {
+            executor.execute(flushTask);
+        } catch (RejectedExecutionException e) {
+            // keep the value pending for the
+            // next call or a manual flush
+            rejected = true;
+        }
+    }
+
+    /**
+     * Dispatch the pending value to the handlers
+     * and futures on the calling thread, if any.
+     *
+     * @return If a value was pending.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean flush() {
+        // keep concurrent flushes in order
+        synchronized (this) {
+            Object value = PENDING.getAndSet(this, EMPTY);
+            if (value == EMPTY)
+                return false;
+
+            dispatches.increment();
+            pipeline.call((V) value);
+            return true;
+        }
+    }
+
+    /**
+     * Get if a value is waiting to be dispatched.
+     *
+     * @return True/false.
+     */
+    public boolean hasPending() {
+        return pending != EMPTY;
+    }
+
+    /* Getters */
+
+    /**
+     * Get the amount of calls made.
+     *
+     * @return The count.
+     */
+    public long callCount() {
+        return calls.sum();
+    }
+
+    /**
+     * Get the amount of dispatches of merged values.
+     *
+     * @return The count.
+     */
+    public long dispatchCount() {
+        return dispatches.sum();
+    }
+
+}
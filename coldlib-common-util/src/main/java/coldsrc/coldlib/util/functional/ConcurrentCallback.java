@@ -0,0 +1,155 @@
+package coldsrc.coldlib.util.functional;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * A thread safe callback allowing multiple handlers
+ * and futures, created by {@link Callback#concurrent()}.
+ *
+ * The handlers are held in an immutable array which is
+ * replaced by compare-and-set on every change, so calls
+ * iterate a plain array snapshot without locking or
+ * allocating. Handlers returning {@link HandlerResult#REMOVE}
+ * are removed together after the dispatch pass. Handlers
+ * registered during a call are not invoked by it, and a
+ * handler may be invoked by concurrent calls before its
+ * removal is applied.
+ *
+ * @param <V> The value type.
+ */
+@SuppressWarnings("unchecked")
+public final class ConcurrentCallback<V> implements Callback<V> {
+
+    static final VarHandle HANDLERS;
+    static final VarHandle FUTURES;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HANDLERS = lookup.findVarHandle(ConcurrentCallback.class, "handlers", Function[].class);
+            FUTURES = lookup.findVarHandle(ConcurrentCallback.class, "futures", CompletableFuture[].class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // the shared empty arrays
+    static final Function<?, ?>[] NO_HANDLERS = new Function<?, ?>[0];
+    static final CompletableFuture<?>[] NO_FUTURES = new CompletableFuture<?>[0];
+
+    ////////////////////////////////////////////
+
+    // the handlers, never modified in place
+    volatile Function<V, HandlerResult>[] handlers = (Function<V, HandlerResult>[]) NO_HANDLERS;
+    // the futures awaiting the next call
+    volatile CompletableFuture<V>[] futures = (CompletableFuture<V>[]) NO_FUTURES;
+
+    @Override
+    public Callback<V> then(Function<V, HandlerResult> handler) {
+        Objects.requireNonNull(handler, "Handler can not be null");
+        for (;;) {
+            Function<V, HandlerResult>[] current = handlers;
+            Function<V, HandlerResult>[] next = append(current, handler);
+            if (HANDLERS.compareAndSet(this, current, next))
+                return this;
+        }
+    }
+
+    @Override
+    public CompletableFuture<V> await() {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        for (;;) {
+            CompletableFuture<V>[] current = futures;
+            CompletableFuture<V>[] next = append(current, future);
+            if (FUTURES.compareAndSet(this, current, next))
+                return future;
+        }
+    }
+
+    @Override
+    public void call(V value) {
+        final Function<V, HandlerResult>[] snapshot = handlers;
+        final int l = snapshot.length;
+
+        // the handlers to remove, allocated lazily
+        Function<V, HandlerResult>[] removed = null;
+        int removedCount = 0;
+        try {
+            for (int i = 0; i < l; i++) {
+                Function<V, HandlerResult> handler = snapshot[i];
+                if (handler.apply(value) == HandlerResult.REMOVE) {
+                    if (removed == null)
+                        removed = (Function<V, HandlerResult>[]) new Function<?, ?>[l - i];
+                    removed[removedCount++] = handler;
+                }
+            }
+        } finally {
+            if (removedCount != 0)
+                removeAll(removed, removedCount);
+        }
+
+        // complete the futures
+        if (futures.length != 0) {
+            CompletableFuture<V>[] awaiting = (CompletableFuture<V>[]) FUTURES.getAndSet(this, NO_FUTURES);
+            for (CompletableFuture<V> future : awaiting)
+                future.complete(value);
+        }
+    }
+
+    /**
+     * Remove the provided handler if registered.
+     *
+     * @param handler The handler.
+     * @return If it was removed.
+     */
+    public boolean remove(Function<V, HandlerResult> handler) {
+        Function<V, HandlerResult>[] single = (Function<V, HandlerResult>[]) new Function<?, ?>[] { handler };
+        return removeAll(single, 1);
+    }
+
+    // remove the first occurrence of each handler
+    // by identity, returns if any was removed
+    boolean removeAll(Function<V, HandlerResult>[] removed, int count) {
+        for (;;) {
+            Function<V, HandlerResult>[] current = handlers;
+            Function<V, HandlerResult>[] next = current.clone();
+            int l = next.length;
+            for (int r = 0; r < count; r++) {
+                for (int i = 0; i < l; i++) {
+                    if (next[i] == removed[r]) {
+                        System.arraycopy(next, i + 1, next, i, l - i - 1);
+                        l--;
+                        break;
+                    }
+                }
+            }
+
+            if (l == current.length)
+                return false;
+            next = l == 0 ? (Function<V, HandlerResult>[]) NO_HANDLERS : Arrays.copyOf(next, l);
+            if (HANDLERS.compareAndSet(this, current, next))
+                return true;
+        }
+    }
+
+    /**
+     * Get the amount of registered handlers.
+     *
+     * @return The count.
+     */
+    public int handlerCount() {
+        return handlers.length;
+    }
+
+    private static <T> T[] append(T[] array, T element) {
+        T[] next = Arrays.copyOf(array, array.length + 1);
+        next[array.length] = element;
+        return next;
+    }
+
+}
@@ -0,0 +1,74 @@
+package coldsrc.coldlib.util.functional;
+
+import coldsrc.coldlib.util.DoubleResult;
+import coldsrc.coldlib.util.Throwables;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A {@link ThrowingSupplier} of {@code double} values,
+ * which does not box the value.
+ *
+ * This class extends {@link DoubleSupplier} for inter-op.
+ */
+@FunctionalInterface
+public interface ThrowingDoubleSupplier extends DoubleSupplier {
+
+    /**
+     * Helper method to avoid casting.
+     *
+     * @see ThrowingSupplier#of(ThrowingSupplier)
+     * @param supplier The supplier.
+     * @return The supplier.
+     */
+    static ThrowingDoubleSupplier of(ThrowingDoubleSupplier supplier) {
+        return supplier;
+    }
+
+    /////////////////////////////////////////////////
+
+    /**
+     * The throwing supplier method.
+     *
+     * @return The value.
+     * @throws Throwable Any errors may be thrown.
+     */
+    double issue() throws Throwable;
+
+    /**
+     * Get the value by calling the {@link ThrowingDoubleSupplier#issue()}
+     * method, and sneakily rethrow any errors.
+     *
+     * @see ThrowingSupplier#get()
+     * @return The value.
+     */
+    @Override
+    default double getAsDouble() {
+        try {
+            // issue value
+            return issue();
+        } catch (Throwable t) {
+            // rethrow error
+            Throwables.sneakyThrow(t);
+            return 0;
+        }
+    }
+
+    /**
+     * Try to issue the value using {@link ThrowingDoubleSupplier#issue()}
+     * and return a successful result when successful, or
+     * a failed result capturing the error, without boxing.
+     *
+     * @return The result.
+     */
+    default DoubleResult attempt() {
+        try {
+            // issue value and return success
+            return DoubleResult.success(issue());
+        } catch (Throwable t) {
+            // fail with error
+            return DoubleResult.failed(t);
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+package coldsrc.coldlib.util.functional;
+
+import coldsrc.coldlib.util.IntResult;
+import coldsrc.coldlib.util.Throwables;
+
+import java.util.function.IntSupplier;
+
+/**
+ * A {@link ThrowingSupplier} of {@code int} values,
+ * which does not box the value.
+ *
+ * This class extends {@link IntSupplier} for inter-op.
+ */
+@FunctionalInterface
+public interface ThrowingIntSupplier extends IntSupplier {
+
+    /**
+     * Helper method to avoid casting.
+     *
+     * @see ThrowingSupplier#of(ThrowingSupplier)
+     * @param supplier The supplier.
+     * @return The supplier.
+     */
+    static ThrowingIntSupplier of(ThrowingIntSupplier supplier) {
+        return supplier;
+    }
+
+    /////////////////////////////////////////////////
+
+    /**
+     * The throwing supplier method.
+     *
+     * @return The value.
+     * @throws Throwable Any errors may be thrown.
+     */
+    int issue() throws Throwable;
+
+    /**
+     * Get the value by calling the {@link ThrowingIntSupplier#issue()}
+     * method, and sneakily rethrow any errors.
+     *
+     * @see ThrowingSupplier#get()
+     * @return The value.
+     */
+    @Override
+    default int getAsInt() {
+        try {
+            // issue value
+            return issue();
+        } catch (Throwable t) {
+            // rethrow error
+            Throwables.sneakyThrow(t);
+            return 0;
+        }
+    }
+
+    /**
+     * Try to issue the value using {@link ThrowingIntSupplier#issue()}
+     * and return a successful result when successful, or
+     * a failed result capturing the error, without boxing.
+     *
+     * @return The result.
+     */
+    default IntResult attempt() {
+        try {
+            // issue value and return success
+            return IntResult.success(issue());
+        } catch (Throwable t) {
+            // fail with error
+            return IntResult.failed(t);
+        }
+    }
+
+}
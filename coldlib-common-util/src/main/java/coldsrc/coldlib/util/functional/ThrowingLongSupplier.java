@@ -0,0 +1,74 @@
+package coldsrc.coldlib.util.functional;
+
+import coldsrc.coldlib.util.LongResult;
+import coldsrc.coldlib.util.Throwables;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link ThrowingSupplier} of {@code long} values,
+ * which does not box the value.
+ *
+ * This class extends {@link LongSupplier} for inter-op.
+ */
+@FunctionalInterface
+public interface ThrowingLongSupplier extends LongSupplier {
+
+    /**
+     * Helper method to avoid casting.
+     *
+     * @see ThrowingSupplier#of(ThrowingSupplier)
+     * @param supplier The supplier.
+     * @return The supplier.
+     */
+    static ThrowingLongSupplier of(ThrowingLongSupplier supplier) {
+        return supplier;
+    }
+
+    /////////////////////////////////////////////////
+
+    /**
+     * The throwing supplier method.
+     *
+     * @return The value.
+     * @throws Throwable Any errors may be thrown.
+     */
+    long issue() throws Throwable;
+
+    /**
+     * Get the value by calling the {@link ThrowingLongSupplier#issue()}
+     * method, and sneakily rethrow any errors.
+     *
+     * @see ThrowingSupplier#get()
+     * @return The value.
+     */
+    @Override
+    default long getAsLong() {
+        try {
+            // issue value
+            return issue();
+        } catch (Throwable t) {
+            // rethrow error
+            Throwables.sneakyThrow(t);
+            return 0;
+        }
+    }
+
+    /**
+     * Try to issue the value using {@link ThrowingLongSupplier#issue()}
+     * and return a successful result when successful, or
+     * a failed result capturing the error, without boxing.
+     *
+     * @return The result.
+     */
+    default LongResult attempt() {
+        try {
+            // issue value and return success
+            return LongResult.success(issue());
+        } catch (Throwable t) {
+            // fail with error
+            return LongResult.failed(t);
+        }
+    }
+
+}
@@ -1,9 +1,17 @@
 package coldsrc.coldlib.util.functional;
 
+import coldsrc.coldlib.util.AsyncExecutors;
+import coldsrc.coldlib.util.CircuitBreaker;
 import coldsrc.coldlib.util.Container;
+import coldsrc.coldlib.util.PreloadingContainer;
 import coldsrc.coldlib.util.Result;
 import coldsrc.coldlib.util.Throwables;
+import coldsrc.coldlib.util.instrument.Instrumentation;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -112,6 +120,86 @@ public interface ThrowingSupplier<T> extends Supplier<T> {
         }
     }
 
+    /**
+     * Issue the value on the provided executor, capturing
+     * the outcome like {@link ThrowingSupplier#attempt()}.
+     * Errors, including the executor rejecting the task,
+     * are returned as failed results, the future is never
+     * completed exceptionally.
+     *
+     * @param executor The executor to run on.
+     * @return The future result.
+     */
+    default CompletableFuture<Result<T>> attemptAsync(Executor executor) {
+        try {
+            return CompletableFuture.supplyAsync(this::attempt, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(Result.failed(e));
+        }
+    }
+
+    /**
+     * Issue the value on the {@link AsyncExecutors#sharedExecutor()},
+     * the executor of the library provider while it is loaded,
+     * which uses virtual threads if supported.
+     *
+     * @see ThrowingSupplier#attemptAsync(Executor)
+     * @return The future result.
+     */
+    default CompletableFuture<Result<T>> attemptAsync() {
+        return attemptAsync(AsyncExecutors.sharedExecutor());
+    }
+
+    /**
+     * Create a supplier which applies the
+     * provided function to the value issued
+     * by this supplier.
+     *
+     * @param function The mapping function.
+     * @param <R> The result type.
+     * @return The supplier.
+     */
+    default <R> ThrowingSupplier<R> map(Function<? super T, ? extends R> function) {
+        return () -> function.apply(issue());
+    }
+
+    /**
+     * Create a supplier which issues the supplier
+     * created by the provided function from the value
+     * issued by this supplier.
+     *
+     * @param function The function creating the next supplier.
+     * @param <R> The result type.
+     * @return The supplier.
+     */
+    default <R> ThrowingSupplier<R> flatMap(Function<? super T, ? extends ThrowingSupplier<? extends R>> function) {
+        return () -> function.apply(issue()).issue();
+    }
+
+    /**
+     * Wrap this supplier in a {@link CircuitBreaker}, which
+     * stops calling it for a while once it keeps failing,
+     * returning a cached failed result instead.
+     *
+     * @param policy The breaker policy.
+     * @return The circuit breaker.
+     */
+    default CircuitBreaker<T> circuitBroken(CircuitBreaker.Policy policy) {
+        return CircuitBreaker.create(this, policy);
+    }
+
+    /**
+     * Time every issue of this supplier under the name
+     * if instrumentation is enabled, otherwise return this.
+     *
+     * @see Instrumentation#supplier(String, ThrowingSupplier)
+     * @param name The metrics name.
+     * @return The supplier.
+     */
+    default ThrowingSupplier<T> instrumented(String name) {
+        return Instrumentation.supplier(name, this);
+    }
+
     /**
      * Creates a new lazily loaded {@link Container}
      * using {@link Container#lazy(Supplier)} with this
@@ -123,4 +211,16 @@ public interface ThrowingSupplier<T> extends Supplier<T> {
         return Container.lazy(this);
     }
 
+    /**
+     * Creates a new {@link Container} which immediately
+     * starts loading the value using this supplier on
+     * the provided executor, using {@link Container#preloading(Supplier, Executor)}.
+     *
+     * @param executor The executor to load on.
+     * @return The container instance.
+     */
+    default PreloadingContainer<T> asPreloadingContainer(Executor executor) {
+        return Container.preloading(this, executor);
+    }
+
 }
@@ -0,0 +1,246 @@
+package coldsrc.coldlib.util.instrument;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies in nanoseconds,
+ * with log-linear buckets like HDR histograms.
+ *
+ * Every power of two range is split into 8 linear
+ * sub buckets, so recorded values are off by at most
+ * 12.5%, over the full range of positive longs. Values
+ * are recorded into one of several stripes picked by
+ * the recording thread, so concurrent threads rarely
+ * write the same memory. Recording never allocates.
+ */
+public final class LatencyHistogram {
+
+    // the amount of sub buckets per power of two
+    static final int SUB_BITS = 3;
+    static final int SUB_COUNT = 1 << SUB_BITS;
+    static final int SUB_MASK = SUB_COUNT - 1;
+
+    // the amount of buckets, covering all positive longs
+    static final int BUCKET_COUNT = bucket(Long.MAX_VALUE) + 1;
+
+    // the slots after the buckets in each stripe
+    static final int SUM = BUCKET_COUNT;
+    static final int MAX = BUCKET_COUNT + 1;
+    static final int STRIPE_LENGTH = BUCKET_COUNT + 2;
+
+    // the amount of stripes, a power of two
+    static final int STRIPE_COUNT = Math.min(8,
+            Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    /**
+     * Get the bucket of the provided value.
+     *
+     * @param value The value, clamped to zero.
+     * @return The bucket index.
+     */
+    static int bucket(long value) {
+        if (value < SUB_COUNT)
+            return value < 0 ? 0 : (int) value;
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        return ((exp - SUB_BITS + 1) << SUB_BITS) + (int) ((value >>> (exp - SUB_BITS)) & SUB_MASK);
+    }
+
+    /**
+     * Get the lowest value in the provided bucket.
+     *
+     * @param bucket The bucket index.
+     * @return The lowest value.
+     */
+    static long lowestValue(int bucket) {
+        if (bucket < SUB_COUNT)
+            return bucket;
+        int exp = (bucket >> SUB_BITS) + SUB_BITS - 1;
+        return (long) (SUB_COUNT + (bucket & SUB_MASK)) << (exp - SUB_BITS);
+    }
+
+    /**
+     * Get the highest value in the provided bucket.
+     *
+     * @param bucket The bucket index.
+     * @return The highest value.
+     */
+    static long highestValue(int bucket) {
+        return bucket + 1 >= BUCKET_COUNT ? Long.MAX_VALUE : lowestValue(bucket + 1) - 1;
+    }
+
+    ////////////////////////////////////////////
+
+    public LatencyHistogram() {
+        this.stripes = new AtomicLongArray[STRIPE_COUNT];
+        for (int i = 0; i < STRIPE_COUNT; i++)
+            stripes[i] = new AtomicLongArray(STRIPE_LENGTH);
+    }
+
+    // the bucket counts followed by
+    // the sum and max of each stripe
+    final AtomicLongArray[] stripes;
+
+    // the stripe of the current thread
+    AtomicLongArray stripe() {
+        int h = System.identityHashCode(Thread.currentThread());
+        return stripes[(h ^ (h >>> 16)) & (STRIPE_COUNT - 1)];
+    }
+
+    /**
+     * Record the provided latency.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+
+        AtomicLongArray stripe = stripe();
+        stripe.getAndIncrement(bucket(nanos));
+        stripe.getAndAdd(SUM, nanos);
+
+        long max;
+        while (nanos > (max = stripe.get(MAX)))
+            if (stripe.compareAndSet(MAX, max, nanos))
+                break;
+    }
+
+    /**
+     * Take a snapshot of the recorded values. This
+     * can be called at any time, values recorded
+     * concurrently may or may not be included.
+     *
+     * @return The snapshot.
+     */
+    public Snapshot snapshot() {
+        long[] buckets = new long[BUCKET_COUNT];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long c = stripe.get(i);
+                buckets[i] += c;
+                count += c;
+            }
+
+            sum += stripe.get(SUM);
+            max = Math.max(max, stripe.get(MAX));
+        }
+
+        return new Snapshot(count, sum, max, buckets);
+    }
+
+    /**
+     * Clear all recorded values. Values
+     * recorded concurrently may be lost.
+     */
+    public void reset() {
+        for (AtomicLongArray stripe : stripes)
+            for (int i = 0; i < STRIPE_LENGTH; i++)
+                stripe.set(i, 0);
+    }
+
+    /**
+     * An immutable view of a histogram.
+     *
+     * @param count The amount of recorded values.
+     * @param sum The sum of the recorded values.
+     * @param max The highest recorded value.
+     * @param buckets The count of each bucket.
+     */
+    public record Snapshot(long count, long sum, long max, long[] buckets) {
+
+        public Snapshot {
+            // keep the array private to this snapshot
+            buckets = buckets.clone();
+        }
+
+        /**
+         * Get a copy of the count of each bucket.
+         *
+         * @return The bucket counts.
+         */
+        @Override
+        public long[] buckets() {
+            return buckets.clone();
+        }
+
+        /**
+         * Get the count of the provided bucket.
+         *
+         * @param bucket The bucket index.
+         * @return The count.
+         */
+        public long count(int bucket) {
+            return buckets[bucket];
+        }
+
+        /**
+         * Get the mean of the recorded values.
+         *
+         * @return The mean, or 0 if empty.
+         */
+        public double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Get the lowest recorded value,
+         * to the precision of the buckets.
+         *
+         * @return The value, or 0 if empty.
+         */
+        public long min() {
+            for (int i = 0; i < buckets.length; i++)
+                if (buckets[i] != 0)
+                    return lowestValue(i);
+            return 0;
+        }
+
+        /**
+         * Get the value below or at which the provided
+         * percentage of the recorded values lies, to the
+         * precision of the buckets.
+         *
+         * @param percentile The percentile, from 0 to 100.
+         * @return The value, or 0 if empty.
+         */
+        public long percentile(double percentile) {
+            if (percentile < 0 || percentile > 100)
+                throw new IllegalArgumentException("Percentile must be between 0 and 100");
+            if (count == 0)
+                return 0;
+
+            long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= target)
+                    return Math.min(highestValue(i), max);
+            }
+
+            return max;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Snapshot other && count == other.count && sum == other.sum &&
+                    max == other.max && Arrays.equals(buckets, other.buckets);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(count) + Arrays.hashCode(buckets);
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot(count: " + count + ", mean: " + (long) mean() + "ns, p50: " + percentile(50) +
+                    "ns, p99: " + percentile(99) + "ns, max: " + max + "ns)";
+        }
+
+    }
+
+}
@@ -0,0 +1,111 @@
+package coldsrc.coldlib.util.instrument;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The latency histogram and call counters
+ * recorded under one name, see {@link Instrumentation}.
+ */
+public final class Metrics {
+
+    public Metrics(String name) {
+        this.name = Objects.requireNonNull(name, "Name can not be null");
+    }
+
+    // the name
+    final String name;
+    // the latency of all calls
+    final LatencyHistogram latency = new LatencyHistogram();
+
+    // when recording started or was last reset
+    volatile long startNanos = System.nanoTime();
+
+    /* Stats */
+    final LongAdder calls  = new LongAdder();
+    final LongAdder errors = new LongAdder();
+
+    /**
+     * Record a call which took the provided time.
+     *
+     * @param nanos The latency in nanoseconds.
+     * @param failed If the call threw an error.
+     */
+    public void record(long nanos, boolean failed) {
+        latency.record(nanos);
+        calls.increment();
+        if (failed)
+            errors.increment();
+    }
+
+    /**
+     * Take a snapshot of the recorded calls.
+     *
+     * @return The snapshot.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(name, calls.sum(), errors.sum(),
+                System.nanoTime() - startNanos, latency.snapshot());
+    }
+
+    /**
+     * Clear all recorded calls. Calls
+     * recorded concurrently may be lost.
+     */
+    public void reset() {
+        latency.reset();
+        calls.reset();
+        errors.reset();
+        startNanos = System.nanoTime();
+    }
+
+    /* Getters */
+
+    public String name() {
+        return name;
+    }
+
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    /**
+     * An immutable view of the metrics of a name.
+     *
+     * @param name The name.
+     * @param calls The amount of recorded calls.
+     * @param errors The amount of calls which threw an error.
+     * @param elapsedNanos The time since recording started or was reset.
+     * @param latency The latency histogram.
+     */
+    public record Snapshot(String name, long calls, long errors, long elapsedNanos,
+                           LatencyHistogram.Snapshot latency) {
+
+        /**
+         * Get the average amount of calls per
+         * second since recording started.
+         *
+         * @return The throughput.
+         */
+        public double throughput() {
+            return elapsedNanos <= 0 ? 0 : calls * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Get the ratio of failed calls to all calls.
+         *
+         * @return The error rate between 0 and 1.
+         */
+        public double errorRate() {
+            return calls == 0 ? 0 : (double) errors / calls;
+        }
+
+        @Override
+        public String toString() {
+            return name + "(calls: " + calls + ", errors: " + errors + ", throughput: " +
+                    (long) throughput() + "/s, latency: " + latency + ")";
+        }
+
+    }
+
+}
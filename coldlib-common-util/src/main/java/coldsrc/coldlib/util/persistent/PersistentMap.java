@@ -0,0 +1,503 @@
+package coldsrc.coldlib.util.persistent;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * An immutable hash map whose modifications return a new
+ * map sharing most of its structure with the original,
+ * implemented as a hash array mapped trie (HAMT).
+ *
+ * Lookups and modifications take {@code O(log32 n)} time,
+ * and a modification only copies the nodes on the path to
+ * the changed entry, so keeping many versions of a large
+ * map around is cheap.
+ *
+ * Keys can not be null, values can. The mutating methods
+ * of {@link Map} are unsupported, use {@link PersistentMap#with(Object, Object)}
+ * and {@link PersistentMap#without(Object)} instead.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+
+    /** Returned by lookups when a key is absent. */
+    static final Object NOT_FOUND = new Object();
+
+    /** The empty map. */
+    static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, 0);
+
+    /**
+     * Get the empty map.
+     *
+     * @param <K> The key type.
+     * @param <V> The value type.
+     * @return The empty map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Create a map with the entries of the provided map.
+     *
+     * @param map The map to copy.
+     * @param <K> The key type.
+     * @param <V> The value type.
+     * @return The persistent map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> from(Map<? extends K, ? extends V> map) {
+        if (map instanceof PersistentMap<?, ?> persistent)
+            return (PersistentMap<K, V>) persistent;
+        PersistentMap<K, V> result = empty();
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet())
+            result = result.with(entry.getKey(), entry.getValue());
+        return result;
+    }
+
+    // spread the hash bits so
+    // the higher bits are used too
+    static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    // the bit of the hash at the level
+    static int bitpos(int hash, int shift) {
+        return 1 << ((hash >>> shift) & 31);
+    }
+
+    ////////////////////////////////////////////
+
+    /**
+     * A trie node. Both node types store their entries as
+     * key/value pairs in one array, a null key marks a
+     * pair whose value is a sub node.
+     */
+    static abstract class Node {
+
+        // the key/value pairs
+        final Object[] array;
+
+        Node(Object[] array) {
+            this.array = array;
+        }
+
+        abstract Object find(int shift, int hash, Object key);
+
+        abstract Node with(int shift, int hash, Object key, Object val, boolean[] added);
+
+        /** Returns this if absent, or null if the node became empty. */
+        abstract Node without(int shift, int hash, Object key);
+
+        void forEach(BiConsumer<Object, Object> consumer) {
+            final Object[] array = this.array;
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    if (array[i + 1] != null)
+                        ((Node) array[i + 1]).forEach(consumer);
+                } else {
+                    consumer.accept(array[i], array[i + 1]);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * A node indexing its pairs by a bitmap
+     * of the hash bits at its level.
+     */
+    static final class BitmapNode extends Node {
+
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        // the occupied slots
+        final int bitmap;
+
+        BitmapNode(int bitmap, Object[] array) {
+            super(array);
+            this.bitmap = bitmap;
+        }
+
+        // the pair index of the bit
+        int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0)
+                return NOT_FOUND;
+            int i = index(bit) << 1;
+            Object k = array[i];
+            if (k == null)
+                return ((Node) array[i + 1]).find(shift + 5, hash, key);
+            return key.equals(k) ? array[i + 1] : NOT_FOUND;
+        }
+
+        @Override
+        Node with(int shift, int hash, Object key, Object val, boolean[] added) {
+            int bit = bitpos(hash, shift);
+            int i = index(bit) << 1;
+            if ((bitmap & bit) == 0) {
+                // insert a new pair
+                Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, i);
+                newArray[i] = key;
+                newArray[i + 1] = val;
+                System.arraycopy(array, i, newArray, i + 2, array.length - i);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, newArray);
+            }
+
+            Object k = array[i];
+            Object v = array[i + 1];
+            if (k == null) {
+                // descend into the sub node
+                Node sub = (Node) v;
+                Node newSub = sub.with(shift + 5, hash, key, val, added);
+                return newSub == sub ? this : new BitmapNode(bitmap, copySet(array, i + 1, newSub));
+            }
+
+            if (key.equals(k)) {
+                // replace the value
+                return v == val ? this : new BitmapNode(bitmap, copySet(array, i + 1, val));
+            }
+
+            // split into a sub node
+            added[0] = true;
+            Object[] newArray = array.clone();
+            newArray[i] = null;
+            newArray[i + 1] = createNode(shift + 5, k, v, hash, key, val);
+            return new BitmapNode(bitmap, newArray);
+        }
+
+        @Override
+        Node without(int shift, int hash, Object key) {
+            int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0)
+                return this;
+            int i = index(bit) << 1;
+            Object k = array[i];
+            if (k == null) {
+                Node sub = (Node) array[i + 1];
+                Node newSub = sub.without(shift + 5, hash, key);
+                if (newSub == sub)
+                    return this;
+                if (newSub != null)
+                    return new BitmapNode(bitmap, copySet(array, i + 1, newSub));
+            } else if (!key.equals(k)) {
+                return this;
+            }
+
+            // remove the pair
+            if (bitmap == bit)
+                return null;
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+            return new BitmapNode(bitmap ^ bit, newArray);
+        }
+
+    }
+
+    /**
+     * A node holding keys with the same full hash.
+     */
+    static final class CollisionNode extends Node {
+
+        // the shared hash
+        final int hash;
+
+        CollisionNode(int hash, Object[] array) {
+            super(array);
+            this.hash = hash;
+        }
+
+        int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2)
+                if (key.equals(array[i]))
+                    return i;
+            return -1;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            if (hash != this.hash)
+                return NOT_FOUND;
+            int i = indexOf(key);
+            return i != -1 ? array[i + 1] : NOT_FOUND;
+        }
+
+        @Override
+        Node with(int shift, int hash, Object key, Object val, boolean[] added) {
+            if (hash != this.hash) {
+                // nest this node in a bitmap node
+                return new BitmapNode(bitpos(this.hash, shift), new Object[] { null, this })
+                        .with(shift, hash, key, val, added);
+            }
+
+            int i = indexOf(key);
+            if (i != -1)
+                return array[i + 1] == val ? this : new CollisionNode(hash, copySet(array, i + 1, val));
+
+            Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = val;
+            added[0] = true;
+            return new CollisionNode(hash, newArray);
+        }
+
+        @Override
+        Node without(int shift, int hash, Object key) {
+            int i = hash == this.hash ? indexOf(key) : -1;
+            if (i == -1)
+                return this;
+            if (array.length == 2)
+                return null;
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+            return new CollisionNode(hash, newArray);
+        }
+
+    }
+
+    // create a node holding two pairs
+    static Node createNode(int shift, Object k1, Object v1, int h2, Object k2, Object v2) {
+        int h1 = hash(k1);
+        if (h1 == h2)
+            return new CollisionNode(h1, new Object[] { k1, v1, k2, v2 });
+        boolean[] added = new boolean[1];
+        return BitmapNode.EMPTY
+                .with(shift, h1, k1, v1, added)
+                .with(shift, h2, k2, v2, added);
+    }
+
+    // copy the array with one element replaced
+    static Object[] copySet(Object[] array, int i, Object val) {
+        Object[] newArray = array.clone();
+        newArray[i] = val;
+        return newArray;
+    }
+
+    ////////////////////////////////////////////
+
+    PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    // the root node, null if empty
+    final Node root;
+    // the amount of entries
+    final int size;
+
+    // the lazily created entry set view
+    Set<Map.Entry<K, V>> entrySet;
+
+    /**
+     * Get a map with the provided entry added
+     * or replaced, sharing structure with this.
+     *
+     * @param key The key.
+     * @param value The value.
+     * @return The new map, or this if unchanged.
+     */
+    public PersistentMap<K, V> with(K key, V value) {
+        Objects.requireNonNull(key, "Key can not be null");
+        boolean[] added = new boolean[1];
+        Node r = root != null ? root : BitmapNode.EMPTY;
+        Node newRoot = r.with(0, hash(key), key, value, added);
+        if (newRoot == root)
+            return this;
+        return new PersistentMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Get a map without the provided key,
+     * sharing structure with this.
+     *
+     * @param key The key.
+     * @return The new map, or this if absent.
+     */
+    public PersistentMap<K, V> without(Object key) {
+        if (root == null || key == null)
+            return this;
+        Node newRoot = root.without(0, hash(key), key);
+        if (newRoot == root)
+            return this;
+        return newRoot == null ? empty() : new PersistentMap<>(newRoot, size - 1);
+    }
+
+    /**
+     * Get a map with the value of the provided key
+     * replaced by the result of the function, called
+     * with the key and the current value or null. If
+     * the function returns null the key is removed.
+     *
+     * @param key The key.
+     * @param function The remapping function.
+     * @return The new map.
+     */
+    @SuppressWarnings("unchecked")
+    public PersistentMap<K, V> withComputed(K key, BiFunction<? super K, ? super V, ? extends V> function) {
+        Object old = find(key);
+        V val = function.apply(key, old != NOT_FOUND ? (V) old : null);
+        return val != null ? with(key, val) : without(key);
+    }
+
+    /**
+     * Get a map with all entries of the provided map added.
+     *
+     * @param map The entries.
+     * @return The new map.
+     */
+    public PersistentMap<K, V> withAll(Map<? extends K, ? extends V> map) {
+        PersistentMap<K, V> result = this;
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet())
+            result = result.with(entry.getKey(), entry.getValue());
+        return result;
+    }
+
+    // find the value or the not found marker
+    Object find(Object key) {
+        if (root == null || key == null)
+            return NOT_FOUND;
+        return root.find(0, hash(key), key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Object v = find(key);
+        return v != NOT_FOUND ? (V) v : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V def) {
+        Object v = find(key);
+        return v != NOT_FOUND ? (V) v : def;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) != NOT_FOUND;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (root != null)
+            root.forEach((BiConsumer<Object, Object>) action);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> set = entrySet;
+        if (set == null) {
+            entrySet = set = new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new EntryIterator<>(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        return set;
+    }
+
+    /**
+     * Iterates the entries depth first
+     * using an explicit stack of nodes.
+     */
+    static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+
+        // a trie is at most 8 levels deep,
+        // plus one for a collision node
+        final Object[][] arrays = new Object[9][];
+        final int[] indices = new int[9];
+        int depth = -1;
+
+        // the next entry
+        Map.Entry<K, V> next;
+
+        EntryIterator(Node root) {
+            if (root != null) {
+                arrays[0] = root.array;
+                depth = 0;
+                advance();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void advance() {
+            while (depth >= 0) {
+                Object[] array = arrays[depth];
+                int i = indices[depth];
+                if (i >= array.length) {
+                    depth--;
+                    continue;
+                }
+
+                indices[depth] = i + 2;
+                if (array[i] == null) {
+                    // descend into the sub node
+                    depth++;
+                    arrays[depth] = ((Node) array[i + 1]).array;
+                    indices[depth] = 0;
+                } else {
+                    next = new SimpleImmutableEntry<>((K) array[i], (V) array[i + 1]);
+                    return;
+                }
+            }
+
+            next = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            Map.Entry<K, V> entry = next;
+            if (entry == null)
+                throw new NoSuchElementException();
+            advance();
+            return entry;
+        }
+
+    }
+
+}
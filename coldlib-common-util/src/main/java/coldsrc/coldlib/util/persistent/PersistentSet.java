@@ -0,0 +1,144 @@
+package coldsrc.coldlib.util.persistent;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * An immutable hash set whose modifications return a new
+ * set sharing most of its structure with the original,
+ * backed by a {@link PersistentMap}.
+ *
+ * Elements can not be null. The mutating methods of
+ * {@link java.util.Set} are unsupported, use {@link PersistentSet#with(Object)}
+ * and {@link PersistentSet#without(Object)} instead.
+ *
+ * @param <E> The element type.
+ */
+public final class PersistentSet<E> extends AbstractSet<E> {
+
+    /** The empty set. */
+    static final PersistentSet<?> EMPTY = new PersistentSet<>(PersistentMap.empty());
+
+    /**
+     * Get the empty set.
+     *
+     * @param <E> The element type.
+     * @return The empty set.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentSet<E> empty() {
+        return (PersistentSet<E>) EMPTY;
+    }
+
+    /**
+     * Create a set with the provided elements.
+     *
+     * @param elements The elements.
+     * @param <E> The element type.
+     * @return The persistent set.
+     */
+    @SafeVarargs
+    public static <E> PersistentSet<E> of(E... elements) {
+        PersistentSet<E> result = empty();
+        for (E element : elements)
+            result = result.with(element);
+        return result;
+    }
+
+    /**
+     * Create a set with the elements
+     * of the provided collection.
+     *
+     * @param collection The elements.
+     * @param <E> The element type.
+     * @return The persistent set.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentSet<E> from(Collection<? extends E> collection) {
+        if (collection instanceof PersistentSet<?> persistent)
+            return (PersistentSet<E>) persistent;
+        return PersistentSet.<E>empty().withAll(collection);
+    }
+
+    ////////////////////////////////////////////
+
+    PersistentSet(PersistentMap<E, Boolean> map) {
+        this.map = map;
+    }
+
+    // the backing map
+    final PersistentMap<E, Boolean> map;
+
+    /**
+     * Get a set with the provided element
+     * added, sharing structure with this.
+     *
+     * @param element The element.
+     * @return The new set, or this if already present.
+     */
+    public PersistentSet<E> with(E element) {
+        PersistentMap<E, Boolean> newMap = map.with(element, Boolean.TRUE);
+        return newMap == map ? this : new PersistentSet<>(newMap);
+    }
+
+    /**
+     * Get a set without the provided
+     * element, sharing structure with this.
+     *
+     * @param element The element.
+     * @return The new set, or this if absent.
+     */
+    public PersistentSet<E> without(Object element) {
+        PersistentMap<E, Boolean> newMap = map.without(element);
+        if (newMap == map)
+            return this;
+        return newMap.isEmpty() ? empty() : new PersistentSet<>(newMap);
+    }
+
+    /**
+     * Get a set with all provided elements added.
+     *
+     * @param elements The elements.
+     * @return The new set.
+     */
+    public PersistentSet<E> withAll(Collection<? extends E> elements) {
+        PersistentSet<E> result = this;
+        for (E element : elements)
+            result = result.with(element);
+        return result;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return map.containsKey(o);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        final Iterator<Map.Entry<E, Boolean>> it = map.entrySet().iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return it.next().getKey();
+            }
+        };
+    }
+
+}
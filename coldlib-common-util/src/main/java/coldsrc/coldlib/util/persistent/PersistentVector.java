@@ -0,0 +1,307 @@
+package coldsrc.coldlib.util.persistent;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * An immutable indexed list whose modifications return
+ * a new list sharing most of its structure with the
+ * original, implemented as a 32-way trie with the last
+ * elements kept in a separate tail array.
+ *
+ * Indexed access and replacement take {@code O(log32 n)}
+ * time, appending and removing the last element take
+ * amortized constant time.
+ *
+ * The mutating methods of {@link java.util.List} are
+ * unsupported, use {@link PersistentVector#append(Object)},
+ * {@link PersistentVector#with(int, Object)} and
+ * {@link PersistentVector#pop()} instead.
+ *
+ * @param <E> The element type.
+ */
+public final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+
+    static final Object[] EMPTY_NODE = new Object[32];
+
+    /** The empty vector. */
+    static final PersistentVector<?> EMPTY = new PersistentVector<>(0, 5, EMPTY_NODE, new Object[0]);
+
+    /**
+     * Get the empty vector.
+     *
+     * @param <E> The element type.
+     * @return The empty vector.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    /**
+     * Create a vector with the provided elements.
+     *
+     * @param elements The elements.
+     * @param <E> The element type.
+     * @return The persistent vector.
+     */
+    @SafeVarargs
+    public static <E> PersistentVector<E> of(E... elements) {
+        PersistentVector<E> result = empty();
+        for (E element : elements)
+            result = result.append(element);
+        return result;
+    }
+
+    /**
+     * Create a vector with the elements
+     * of the provided collection.
+     *
+     * @param collection The elements.
+     * @param <E> The element type.
+     * @return The persistent vector.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> from(Collection<? extends E> collection) {
+        if (collection instanceof PersistentVector<?> persistent)
+            return (PersistentVector<E>) persistent;
+        return PersistentVector.<E>empty().appendAll(collection);
+    }
+
+    ////////////////////////////////////////////
+
+    PersistentVector(int count, int shift, Object[] root, Object[] tail) {
+        this.count = count;
+        this.shift = shift;
+        this.root  = root;
+        this.tail  = tail;
+    }
+
+    // the amount of elements
+    final int count;
+    // the shift of the root level
+    final int shift;
+    // the root of the trie
+    final Object[] root;
+    // the last up to 32 elements
+    final Object[] tail;
+
+    // the index of the first element in the tail
+    int tailOffset() {
+        return count < 32 ? 0 : ((count - 1) >>> 5) << 5;
+    }
+
+    // the leaf array holding the index
+    Object[] arrayFor(int i) {
+        if (i >= tailOffset())
+            return tail;
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= 5)
+            node = (Object[]) node[(i >>> level) & 31];
+        return node;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= count)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + count);
+        return (E) arrayFor(index)[index & 31];
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Get a vector with the provided element
+     * added to the end, sharing structure with this.
+     *
+     * @param element The element.
+     * @return The new vector.
+     */
+    public PersistentVector<E> append(E element) {
+        // room in the tail
+        if (count - tailOffset() < 32) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = element;
+            return new PersistentVector<>(count + 1, shift, root, newTail);
+        }
+
+        // push the full tail into the trie
+        Object[] newRoot;
+        int newShift = shift;
+        if ((count >>> 5) > (1 << shift)) {
+            // the root overflows
+            newRoot = new Object[32];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += 5;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+
+        return new PersistentVector<>(count + 1, newShift, newRoot, new Object[] { element });
+    }
+
+    /**
+     * Get a vector with all provided
+     * elements added to the end.
+     *
+     * @param elements The elements.
+     * @return The new vector.
+     */
+    public PersistentVector<E> appendAll(Collection<? extends E> elements) {
+        PersistentVector<E> result = this;
+        for (E element : elements)
+            result = result.append(element);
+        return result;
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+        int subIndex = ((count - 1) >>> level) & 31;
+        Object[] node = parent.clone();
+        Object insert;
+        if (level == 5) {
+            insert = tailNode;
+        } else {
+            Object child = parent[subIndex];
+            insert = child != null ?
+                    pushTail(level - 5, (Object[]) child, tailNode) :
+                    newPath(level - 5, tailNode);
+        }
+
+        node[subIndex] = insert;
+        return node;
+    }
+
+    private static Object[] newPath(int level, Object[] node) {
+        if (level == 0)
+            return node;
+        Object[] path = new Object[32];
+        path[0] = newPath(level - 5, node);
+        return path;
+    }
+
+    /**
+     * Get a vector with the element at the provided
+     * index replaced, sharing structure with this.
+     * The index may be the size to append.
+     *
+     * @param index The index.
+     * @param element The element.
+     * @return The new vector.
+     */
+    public PersistentVector<E> with(int index, E element) {
+        if (index == count)
+            return append(element);
+        if (index < 0 || index > count)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + count);
+
+        if (index >= tailOffset()) {
+            Object[] newTail = tail.clone();
+            newTail[index & 31] = element;
+            return new PersistentVector<>(count, shift, root, newTail);
+        }
+
+        return new PersistentVector<>(count, shift, doWith(shift, root, index, element), tail);
+    }
+
+    private static Object[] doWith(int level, Object[] node, int index, Object element) {
+        Object[] copy = node.clone();
+        if (level == 0) {
+            copy[index & 31] = element;
+        } else {
+            int subIndex = (index >>> level) & 31;
+            copy[subIndex] = doWith(level - 5, (Object[]) node[subIndex], index, element);
+        }
+
+        return copy;
+    }
+
+    /**
+     * Get a vector without the last
+     * element, sharing structure with this.
+     *
+     * @return The new vector.
+     * @throws IllegalStateException If this vector is empty.
+     */
+    public PersistentVector<E> pop() {
+        if (count == 0)
+            throw new IllegalStateException("Can not pop an empty vector");
+        if (count == 1)
+            return empty();
+
+        // remove from the tail
+        if (count - tailOffset() > 1) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length - 1);
+            return new PersistentVector<>(count - 1, shift, root, newTail);
+        }
+
+        // pull the last leaf out of the trie
+        Object[] newTail = arrayFor(count - 2);
+        Object[] newRoot = popTail(shift, root);
+        int newShift = shift;
+        if (newRoot == null)
+            newRoot = EMPTY_NODE;
+        if (shift > 5 && newRoot[1] == null) {
+            newRoot = (Object[]) newRoot[0];
+            newShift -= 5;
+        }
+
+        return new PersistentVector<>(count - 1, newShift, newRoot, newTail);
+    }
+
+    private Object[] popTail(int level, Object[] node) {
+        int subIndex = ((count - 2) >>> level) & 31;
+        if (level > 5) {
+            Object[] child = popTail(level - 5, (Object[]) node[subIndex]);
+            if (child == null && subIndex == 0)
+                return null;
+            Object[] copy = node.clone();
+            copy[subIndex] = child;
+            return copy;
+        } else if (subIndex == 0) {
+            return null;
+        } else {
+            Object[] copy = node.clone();
+            copy[subIndex] = null;
+            return copy;
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        // iterates leaf by leaf
+        return new Iterator<>() {
+            int index;
+            Object[] leaf = count > 0 ? arrayFor(0) : null;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (index >= count)
+                    throw new NoSuchElementException();
+                if (index != 0 && (index & 31) == 0)
+                    leaf = arrayFor(index);
+                return (E) leaf[index++ & 31];
+            }
+        };
+    }
+
+}
@@ -0,0 +1,79 @@
+package coldsrc.coldlib.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the state word and version of {@link AtomicContainer}.
+ */
+public class AtomicContainerTest {
+
+    @Test
+    void testUnsetAndNull() {
+        AtomicContainer<String> container = AtomicContainer.create();
+        assertFalse(container.isSet());
+        assertNull(container.get());
+
+        // null is a value, not the unset state
+        container.set(null);
+        assertTrue(container.isSet());
+        assertNull(container.get());
+    }
+
+    @Test
+    void testVersionAdvancesOnEveryWrite() {
+        AtomicContainer<String> container = AtomicContainer.create("a");
+        long v = container.version();
+
+        container.set("b");
+        assertTrue(container.version() > v);
+        v = container.version();
+
+        container.setRelease("c");
+        assertEquals("c", container.getAcquire());
+        assertTrue(container.version() > v);
+        v = container.version();
+
+        container.setOpaque("d");
+        assertEquals("d", container.getOpaque());
+        assertTrue(container.version() > v);
+    }
+
+    @Test
+    void testConcurrentUpdates() throws Exception {
+        final int threads = 8;
+        final int perThread = 10_000;
+        AtomicContainer<Integer> container = AtomicContainer.create(0);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++)
+                    container.updateAndGet(x -> x + 1);
+            });
+            workers[t].start();
+        }
+
+        for (Thread thread : workers)
+            thread.join();
+        assertEquals(threads * perThread, container.get());
+    }
+
+    @Test
+    void testPrimitiveAtomicsAreAlwaysSet() {
+        IntContainer i = IntContainer.atomic();
+        assertTrue(i.isSet());
+        assertEquals(0, i.getAsInt());
+        assertTrue(i.compareAndSet(0, 5));
+        assertEquals(5, i.getAsInt());
+
+        LongContainer l = LongContainer.atomic();
+        assertTrue(l.isSet());
+        assertEquals(3, l.addAndGet(3));
+
+        DoubleContainer d = DoubleContainer.atomic();
+        assertTrue(d.isSet());
+        assertEquals(1.5, d.addAndGet(1.5));
+    }
+
+}
@@ -0,0 +1,127 @@
+package coldsrc.coldlib.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the lock-free waiter stack of {@link AwaitableContainer}.
+ */
+public class AwaitableContainerTest {
+
+    @Test
+    void testAwaitSetValue() {
+        AwaitableContainer<String> container = new AwaitableContainer<>(Container.atomic());
+        CompletableFuture<String> a = container.await();
+        CompletableFuture<String> b = container.await();
+        assertFalse(a.isDone());
+
+        container.set("value");
+        assertEquals("value", a.join());
+        assertEquals("value", b.join());
+        assertFalse(container.hasWaiters());
+    }
+
+    @Test
+    void testAwaitAlreadySetIsNotShared() {
+        AwaitableContainer<String> container = new AwaitableContainer<>(Container.atomic("value"));
+        CompletableFuture<String> a = container.await(false);
+        CompletableFuture<String> b = container.await(false);
+        assertNotSame(a, b);
+
+        // one holder changing its future is not seen by others
+        a.obtrudeValue("changed");
+        assertEquals("value", b.join());
+        assertEquals("value", container.await(false).join());
+    }
+
+    @Test
+    void testListenWaitsForNextSet() {
+        AwaitableContainer<String> container = new AwaitableContainer<>(Container.atomic("old"));
+        CompletableFuture<String> future = container.await(true);
+        assertFalse(future.isDone());
+
+        container.set("new");
+        assertEquals("new", future.join());
+    }
+
+    @Test
+    void testCancelledWaitersAreUnlinked() {
+        AwaitableContainer<String> container = new AwaitableContainer<>(Container.atomic());
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            futures.add(container.await());
+        for (CompletableFuture<String> future : futures)
+            future.cancel(false);
+
+        assertFalse(container.hasWaiters());
+    }
+
+    @Test
+    void testFailedSetFailsWaiters() {
+        Container<String> failing = Container.atomic();
+        AwaitableContainer<String> container = new AwaitableContainer<>(new Container<>() {
+            @Override public String get() { return failing.get(); }
+            @Override public boolean isSet() { return failing.isSet(); }
+            @Override public Container<String> set(String val) { throw new IllegalStateException("failed"); }
+            @Override public Mutability mutability() { return Mutability.MODIFY; }
+        });
+
+        CompletableFuture<String> future = container.await();
+        assertThrows(IllegalStateException.class, () -> container.set("value"));
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    void testConcurrentAwaitAndSet() throws Exception {
+        final int threads = 8;
+        final int perThread = 2_000;
+        for (int round = 0; round < 20; round++) {
+            AwaitableContainer<Integer> container = new AwaitableContainer<>(Container.atomic());
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+
+                    // await while the value is being set,
+                    // cancelling some waiters on the way
+                    for (int i = 0; i < perThread; i++) {
+                        CompletableFuture<Integer> future = container.await();
+                        if ((i & 7) == 0)
+                            future.cancel(false);
+                        synchronized (futures) {
+                            futures.add(future);
+                        }
+                    }
+                });
+                workers.add(thread);
+                thread.start();
+            }
+
+            start.countDown();
+            container.set(42);
+            for (Thread thread : workers)
+                thread.join();
+
+            // every waiter was either cancelled or completed,
+            // including those pushed after the set
+            for (CompletableFuture<Integer> future : futures) {
+                if (!future.isCancelled())
+                    assertEquals(42, future.get(5, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package coldsrc.coldlib.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the state transitions of {@link CircuitBreaker}.
+ */
+public class CircuitBreakerTest {
+
+    @Test
+    void testTripsAfterThreshold() {
+        AtomicInteger calls = new AtomicInteger();
+        CircuitBreaker<String> breaker = CircuitBreaker.create(() -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("down");
+        }, CircuitBreaker.Policy.of(3, Duration.ofMinutes(1), Duration.ofMinutes(1)));
+
+        for (int i = 0; i < 3; i++)
+            assertInstanceOf(IllegalStateException.class, breaker.attempt().error());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(1, breaker.tripCount());
+
+        // rejected without calling the supplier
+        Result<String> result = breaker.attempt();
+        assertInstanceOf(CircuitBreaker.OpenException.class, result.error());
+        assertInstanceOf(IllegalStateException.class, result.error().getCause());
+        assertEquals(3, calls.get());
+        assertEquals(1, breaker.rejectedCount());
+
+        breaker.reset();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void testProbeClosesOrReopens() throws Exception {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        CircuitBreaker<String> breaker = CircuitBreaker.create(() -> {
+            if (failing.get())
+                throw new IllegalStateException("down");
+            return "up";
+        }, CircuitBreaker.Policy.of(1, Duration.ofMinutes(1), Duration.ofMillis(20)));
+
+        breaker.attempt();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        // a failed probe opens the breaker again
+        Thread.sleep(30);
+        assertInstanceOf(IllegalStateException.class, breaker.attempt().error());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(2, breaker.tripCount());
+
+        // a successful probe closes it
+        Thread.sleep(30);
+        failing.set(false);
+        assertEquals("up", breaker.attempt().orNull());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void testOnlyOneProbe() throws Exception {
+        AtomicInteger probes = new AtomicInteger();
+        AtomicBoolean failing = new AtomicBoolean(true);
+        CircuitBreaker<String> breaker = CircuitBreaker.create(() -> {
+            if (failing.get())
+                throw new IllegalStateException("down");
+            probes.incrementAndGet();
+            Thread.sleep(50);
+            return "up";
+        }, CircuitBreaker.Policy.of(1, Duration.ofMinutes(1), Duration.ofMillis(20)));
+
+        breaker.attempt();
+        Thread.sleep(30);
+        failing.set(false);
+
+        Thread[] callers = new Thread[8];
+        for (int t = 0; t < callers.length; t++) {
+            callers[t] = new Thread(breaker::attempt);
+            callers[t].start();
+        }
+
+        for (Thread thread : callers)
+            thread.join();
+        assertEquals(1, probes.get());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void testInvalidPolicy() {
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.Policy.of(0, Duration.ofSeconds(1), Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.Policy.of(1, Duration.ZERO, Duration.ofSeconds(1)));
+    }
+
+}
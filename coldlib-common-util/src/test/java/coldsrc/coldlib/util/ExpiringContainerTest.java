@@ -0,0 +1,132 @@
+package coldsrc.coldlib.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the refreshing of {@link ExpiringContainer}.
+ */
+public class ExpiringContainerTest {
+
+    static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testServesCachedValue() {
+        AtomicInteger calls = new AtomicInteger();
+        ExpiringContainer<Integer> container = Container.expiring(calls::incrementAndGet, Duration.ofMinutes(1));
+        assertEquals(1, container.get());
+        assertEquals(1, container.get());
+        assertEquals(1, calls.get());
+        assertEquals(1, container.missCount());
+        assertEquals(1, container.hitCount());
+
+        container.invalidate();
+        assertEquals(2, container.get());
+    }
+
+    @Test
+    void testFailedRefreshKeepsValue() {
+        AtomicInteger calls = new AtomicInteger();
+        ExpiringContainer<Integer> container = Container.expiring(() -> {
+            if (calls.incrementAndGet() > 1)
+                throw new IllegalStateException("down");
+            return 1;
+        }, Duration.ofMinutes(1));
+
+        assertEquals(1, container.get());
+        assertNotNull(container.refresh().error());
+        assertEquals(1, container.get());
+        assertInstanceOf(IllegalStateException.class, container.lastError());
+    }
+
+    @Test
+    void testSetDuringRefreshIsKept() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch loading = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger calls = new AtomicInteger();
+            ExpiringContainer<String> container = Container.refreshAhead(() -> {
+                if (calls.incrementAndGet() == 2) {
+                    loading.countDown();
+                    await(release);
+                }
+
+                return "loaded";
+            }, Duration.ofMillis(10), Duration.ofMinutes(1), executor);
+
+            container.get();
+            Thread.sleep(20);
+            // starts the slow background refresh
+            container.get();
+            loading.await();
+
+            container.set("manual");
+            release.countDown();
+            executor.submit(() -> { }).get();
+            assertEquals("manual", container.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExpiredLoadJoinsRefresh() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch loading = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger calls = new AtomicInteger();
+            ExpiringContainer<Integer> container = Container.refreshAhead(() -> {
+                int n = calls.incrementAndGet();
+                if (n == 2) {
+                    loading.countDown();
+                    await(release);
+                }
+
+                return n;
+            }, Duration.ofMillis(10), Duration.ofMillis(40), executor);
+
+            assertEquals(1, container.get());
+            Thread.sleep(20);
+            container.get();
+            loading.await();
+
+            // past the time to live, blocking callers
+            // join the refresh in progress
+            Thread.sleep(40);
+            Thread[] callers = new Thread[4];
+            int[] seen = new int[callers.length];
+            for (int t = 0; t < callers.length; t++) {
+                final int index = t;
+                callers[t] = new Thread(() -> seen[index] = container.get());
+                callers[t].start();
+            }
+
+            Thread.sleep(20);
+            release.countDown();
+            for (Thread thread : callers)
+                thread.join();
+
+            for (int value : seen)
+                assertEquals(2, value);
+            assertEquals(2, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+package coldsrc.coldlib.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the thread safe modes of the lazy containers.
+ */
+public class LazyContainerTest {
+
+    // query the supplier from many threads started at
+    // once, returning the values they have observed
+    static long[] race(int threads, IntSupplier query) throws Exception {
+        long[] seen = new long[threads];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int index = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                seen[index] = query.getAsInt();
+            });
+            workers[t].start();
+        }
+
+        start.countDown();
+        for (Thread thread : workers)
+            thread.join();
+        return seen;
+    }
+
+    @Test
+    void testSynchronizedCallsSupplierOnce() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            AtomicInteger calls = new AtomicInteger();
+            Container<Integer> container = Container.lazy(Container.LazyMode.SYNCHRONIZED, calls::incrementAndGet);
+            long[] seen = race(8, container::get);
+            assertEquals(1, calls.get());
+            for (long value : seen)
+                assertEquals(1, value);
+        }
+    }
+
+    @Test
+    void testPublicationPublishesOneValue() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            AtomicInteger calls = new AtomicInteger();
+            Supplier<Integer> supplier = calls::incrementAndGet;
+            Container<Integer> container = Container.lazy(Container.LazyMode.PUBLICATION, supplier);
+            long[] seen = race(8, container::get);
+
+            // the supplier may race, but every thread
+            // sees the single value which was published
+            for (long value : seen)
+                assertEquals(seen[0], value);
+            assertEquals(seen[0], (long) container.get());
+        }
+    }
+
+    @Test
+    void testPrimitivePublicationPublishesOneValue() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            AtomicInteger ints = new AtomicInteger();
+            IntContainer i = IntContainer.lazy(Container.LazyMode.PUBLICATION, ints::incrementAndGet);
+            long[] seen = race(8, i::getAsInt);
+            for (long value : seen)
+                assertEquals(seen[0], value);
+            assertEquals(seen[0], i.getAsInt());
+
+            AtomicInteger longs = new AtomicInteger();
+            LongContainer l = LongContainer.lazy(Container.LazyMode.PUBLICATION, () -> longs.incrementAndGet() * 10L);
+            seen = race(8, () -> (int) l.getAsLong());
+            for (long value : seen)
+                assertEquals(seen[0], value);
+            assertEquals(seen[0], l.getAsLong());
+
+            AtomicInteger doubles = new AtomicInteger();
+            DoubleContainer d = DoubleContainer.lazy(Container.LazyMode.PUBLICATION, () -> doubles.incrementAndGet() + 0.5);
+            seen = race(8, () -> (int) d.getAsDouble());
+            for (long value : seen)
+                assertEquals(seen[0], value);
+        }
+    }
+
+    @Test
+    void testPublicationIsSetAndImmutable() {
+        IntContainer container = IntContainer.lazy(Container.LazyMode.PUBLICATION, () -> 7);
+        assertTrue(container.isSet());
+        assertEquals(7, container.getAsInt());
+        assertThrows(UnsupportedOperationException.class, () -> container.setInt(1));
+    }
+
+}
@@ -0,0 +1,54 @@
+package coldsrc.coldlib.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the parallel loading of {@link PreloadGroup}.
+ */
+public class PreloadGroupTest {
+
+    @Test
+    void testLoadsAllContainers() throws Exception {
+        PreloadGroup group = PreloadGroup.create(Runnable::run);
+        PreloadingContainer<String> a = group.add(() -> "a");
+        Container<String> b = group.addContainer(Container.lazy(() -> "b"));
+        PreloadingContainer<String> failed = group.add(() -> {
+            throw new IllegalStateException();
+        });
+
+        List<Result<?>> results = group.start().get(5, TimeUnit.SECONDS);
+        assertEquals(3, results.size());
+        assertEquals("a", results.get(0).orNull());
+        assertEquals("b", results.get(1).orNull());
+        assertInstanceOf(IllegalStateException.class, results.get(2).error());
+        assertEquals("a", a.get());
+        assertEquals("b", b.get());
+        assertThrows(IllegalStateException.class, failed::get);
+    }
+
+    @Test
+    void testRejectedExecutorFailsOnlyIssuedContainers() throws Exception {
+        PreloadGroup group = PreloadGroup.create(task -> {
+            throw new RejectedExecutionException();
+        });
+
+        PreloadingContainer<String> preloading = group.add(() -> "a");
+        group.addContainer(Container.lazy(() -> "b"));
+
+        // must not throw, the preloading container
+        // falls back to loading on first query
+        CompletableFuture<List<Result<?>>> future = group.start();
+        assertEquals("a", preloading.get());
+        List<Result<?>> results = future.get(5, TimeUnit.SECONDS);
+        assertEquals("a", results.get(0).orNull());
+        assertInstanceOf(RejectedExecutionException.class, results.get(1).error());
+    }
+
+}
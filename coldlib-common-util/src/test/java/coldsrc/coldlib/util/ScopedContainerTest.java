@@ -0,0 +1,77 @@
+package coldsrc.coldlib.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the bindings of {@link ScopedContainer}.
+ */
+public class ScopedContainerTest {
+
+    @Test
+    void testNestedBindings() {
+        ScopedContainer<String> container = Container.scoped();
+        assertFalse(container.isSet());
+        assertThrows(NoSuchElementException.class, container::get);
+
+        container.run("outer", () -> {
+            assertEquals("outer", container.get());
+            assertEquals("inner", container.call("inner", container::get));
+            assertEquals("outer", container.get());
+        });
+
+        assertFalse(container.isSet());
+        assertTrue(container.bindings.isEmpty());
+    }
+
+    @Test
+    void testBindingRemovedAfterFailure() {
+        ScopedContainer<String> container = Container.scoped();
+        assertThrows(IllegalStateException.class, () -> container.run("value", () -> {
+            throw new IllegalStateException();
+        }));
+
+        assertFalse(container.isSet());
+        assertTrue(container.bindings.isEmpty());
+    }
+
+    @Test
+    void testLazyBindingLoadsOnce() {
+        ScopedContainer<Integer> container = Container.scoped();
+        AtomicInteger calls = new AtomicInteger();
+        container.runLazy(calls::incrementAndGet, () -> { });
+        assertEquals(0, calls.get());
+
+        int sum = container.callLazy(calls::incrementAndGet, () -> container.get() + container.get());
+        assertEquals(2, sum);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testThreadsAreIsolated() throws Exception {
+        ScopedContainer<Integer> container = Container.scoped();
+        Thread[] threads = new Thread[8];
+        AtomicInteger mismatches = new AtomicInteger();
+        for (int t = 0; t < threads.length; t++) {
+            final int id = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++)
+                    container.run(id, () -> {
+                        if (container.get() != id)
+                            mismatches.incrementAndGet();
+                    });
+            });
+            threads[t].start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+        assertEquals(0, mismatches.get());
+        assertTrue(container.bindings.isEmpty());
+    }
+
+}
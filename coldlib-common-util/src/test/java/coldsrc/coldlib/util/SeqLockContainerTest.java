@@ -0,0 +1,111 @@
+package coldsrc.coldlib.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that readers of a {@link SeqLockContainer}
+ * never observe a torn write.
+ */
+public class SeqLockContainerTest {
+
+    record Point(long x, long y, String label) { }
+
+    static SeqLockContainer<Point> points() {
+        return Container.seqLocked(2, 1,
+                view -> new Point(view.getLong(0), view.getLong(1), view.getRef(0)),
+                (writer, p) -> writer.setLong(0, p.x()).setLong(1, p.y()).setRef(0, p.label()));
+    }
+
+    @Test
+    void testSetAndGet() {
+        SeqLockContainer<Point> container = points();
+        container.set(new Point(1, 2, "a"));
+        assertEquals(new Point(1, 2, "a"), container.get());
+        assertEquals(1, container.getLong(0));
+        assertEquals("a", container.getRef(0));
+        assertTrue(container.version() > 0);
+    }
+
+    @Test
+    void testTypedSlots() {
+        SeqLockContainer<Void> container = Container.seqLocked(4, 0);
+        container.write(writer -> writer
+                .setInt(0, -7)
+                .setDouble(1, 2.5)
+                .setBoolean(2, true)
+                .setLong(3, Long.MIN_VALUE));
+        int i = container.read(view -> view.getInt(0));
+        boolean b = container.read(view -> view.getBoolean(2));
+        assertEquals(-7, i);
+        assertEquals(2.5, container.readDouble(view -> view.getDouble(1)));
+        assertTrue(b);
+        assertEquals(Long.MIN_VALUE, container.readLong(view -> view.getLong(3)));
+    }
+
+    @Test
+    void testReadersNeverSeeTornWrites() throws Exception {
+        SeqLockContainer<Point> container = points();
+        container.set(new Point(0, 0, "0"));
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong torn = new AtomicLong();
+        AtomicLong reads = new AtomicLong();
+
+        // every write keeps y == -x and label == x
+        Thread[] writers = new Thread[2];
+        for (int w = 0; w < writers.length; w++) {
+            final long offset = w * 1_000_000_000L;
+            writers[w] = new Thread(() -> {
+                for (long i = 1; i <= 100_000; i++) {
+                    long x = offset + i;
+                    container.set(new Point(x, -x, Long.toString(x)));
+                }
+            });
+        }
+
+        Thread[] readers = new Thread[4];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                while (running.get()) {
+                    Point p = container.get();
+                    long sum = container.readLong(view -> view.getLong(0) + view.getLong(1));
+                    if (p.x() != -p.y() || !p.label().equals(Long.toString(p.x())) || sum != 0)
+                        torn.incrementAndGet();
+                    reads.incrementAndGet();
+                }
+            });
+            readers[r].start();
+        }
+
+        for (Thread writer : writers)
+            writer.start();
+        for (Thread writer : writers)
+            writer.join();
+        running.set(false);
+        for (Thread reader : readers)
+            reader.join();
+
+        assertEquals(0, torn.get(), "torn reads out of " + reads.get());
+        assertEquals(2 * 100_000 + 1, container.version());
+    }
+
+    @Test
+    void testFailedWriteReleasesLock() {
+        SeqLockContainer<Void> container = Container.seqLocked(1, 0);
+        assertThrows(IllegalStateException.class, () -> container.write(writer -> {
+            writer.setLong(0, 1);
+            throw new IllegalStateException();
+        }));
+
+        // the partial write is published and the lock released
+        assertEquals(1, container.getLong(0));
+        container.write(writer -> writer.setLong(0, 2));
+        assertEquals(2, container.getLong(0));
+    }
+
+}
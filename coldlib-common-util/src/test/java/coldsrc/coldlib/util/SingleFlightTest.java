@@ -0,0 +1,128 @@
+package coldsrc.coldlib.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the coalescing of loads by {@link SingleFlight}.
+ */
+public class SingleFlightTest {
+
+    @Test
+    void testConcurrentLoadsCoalesce() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger calls = new AtomicInteger();
+            SingleFlight<String, Integer> flight = SingleFlight.create(key -> {
+                calls.incrementAndGet();
+                release.await();
+                return key.length();
+            }, executor);
+
+            // all callers start while the first load blocks
+            List<CompletableFuture<Result<Integer>>> futures = new ArrayList<>();
+            Thread[] callers = new Thread[8];
+            for (int t = 0; t < callers.length; t++) {
+                callers[t] = new Thread(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        CompletableFuture<Result<Integer>> future = flight.load("key");
+                        synchronized (futures) {
+                            futures.add(future);
+                        }
+                    }
+                });
+                callers[t].start();
+            }
+
+            for (Thread thread : callers)
+                thread.join();
+            assertTrue(flight.isInFlight("key"));
+            release.countDown();
+
+            for (CompletableFuture<Result<Integer>> future : futures)
+                assertEquals(3, future.get(5, TimeUnit.SECONDS).orNull());
+            assertEquals(1, calls.get());
+            assertEquals(1, flight.loadCount());
+            assertEquals(799, flight.coalescedCount());
+            assertFalse(flight.isInFlight("key"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCancellingCopyDoesNotAffectOthers() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            SingleFlight<String, String> flight = SingleFlight.create(key -> {
+                release.await();
+                return key;
+            }, executor);
+
+            CompletableFuture<Result<String>> a = flight.load("key");
+            CompletableFuture<Result<String>> b = flight.load("key");
+            a.cancel(true);
+            release.countDown();
+
+            assertTrue(a.isCancelled());
+            assertEquals("key", b.get(5, TimeUnit.SECONDS).orNull());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testMaxInFlightRejects() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            SingleFlight<Integer, Integer> flight = SingleFlight.create(key -> {
+                release.await();
+                return key;
+            }, executor, 2);
+
+            CompletableFuture<Result<Integer>> a = flight.load(1);
+            CompletableFuture<Result<Integer>> b = flight.load(2);
+            Result<Integer> rejected = flight.load(3).join();
+            assertInstanceOf(RejectedExecutionException.class, rejected.error());
+            assertEquals(1, flight.rejectedCount());
+
+            // loads in flight can still be joined
+            assertFalse(flight.load(1).isDone());
+
+            release.countDown();
+            assertEquals(1, a.get(5, TimeUnit.SECONDS).orNull());
+            assertEquals(2, b.get(5, TimeUnit.SECONDS).orNull());
+            assertEquals(3, flight.loadBlocking(3).orNull());
+            assertEquals(0, flight.inFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailuresAreResults() {
+        SingleFlight<String, String> flight = SingleFlight.create(key -> {
+            throw new IllegalStateException(key);
+        }, Runnable::run);
+
+        Result<String> result = flight.loadBlocking("key");
+        assertFalse(result.isPresent());
+        assertInstanceOf(IllegalStateException.class, result.error());
+        assertFalse(flight.isInFlight("key"));
+    }
+
+}
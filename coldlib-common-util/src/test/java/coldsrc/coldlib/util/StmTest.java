@@ -0,0 +1,127 @@
+package coldsrc.coldlib.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the isolation and atomicity of {@link Stm} transactions.
+ */
+public class StmTest {
+
+    @SuppressWarnings("unchecked")
+    static AtomicContainer<Long>[] accounts(int count, long balance) {
+        AtomicContainer<Long>[] accounts = (AtomicContainer<Long>[]) new AtomicContainer<?>[count];
+        for (int i = 0; i < count; i++)
+            accounts[i] = AtomicContainer.create(balance);
+        return accounts;
+    }
+
+    static long total(AtomicContainer<Long>[] accounts) {
+        long sum = 0;
+        for (AtomicContainer<Long> account : accounts)
+            sum += account.get();
+        return sum;
+    }
+
+    @Test
+    void testTransfersConserveTotal() throws Exception {
+        final Stm stm = Stm.create();
+        final AtomicContainer<Long>[] accounts = accounts(4, 1_000);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicLong badSnapshots = new AtomicLong();
+
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            writers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 10_000; i++) {
+                    AtomicContainer<Long> from = accounts[random.nextInt(accounts.length)];
+                    AtomicContainer<Long> to = accounts[random.nextInt(accounts.length)];
+                    stm.run(tx -> {
+                        tx.update(from, b -> b - 1);
+                        tx.update(to, b -> b + 1);
+                    });
+                }
+            });
+        }
+
+        // read-only transactions must always see the full total
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                long sum = stm.call(tx -> {
+                    long s = 0;
+                    for (AtomicContainer<Long> account : accounts)
+                        s += tx.get(account);
+                    return s;
+                });
+
+                if (sum != 4_000)
+                    badSnapshots.incrementAndGet();
+            }
+        });
+
+        reader.start();
+        for (Thread writer : writers)
+            writer.start();
+        for (Thread writer : writers)
+            writer.join();
+        running.set(false);
+        reader.join();
+
+        assertEquals(4_000, total(accounts));
+        assertEquals(0, badSnapshots.get());
+        assertTrue(stm.commitCount() > 0);
+    }
+
+    @Test
+    void testFailedTransactionDiscardsWrites() {
+        Stm stm = Stm.create();
+        AtomicContainer<Long> a = AtomicContainer.create(1L);
+        assertThrows(IllegalStateException.class, () -> stm.run(tx -> {
+            tx.set(a, 2L);
+            throw new IllegalStateException();
+        }));
+
+        assertEquals(1L, a.get());
+        assertEquals(1, stm.failureCount());
+    }
+
+    @Test
+    void testNestedTransactionsJoin() {
+        Stm stm = Stm.create();
+        AtomicContainer<Long> a = AtomicContainer.create(1L);
+        long result = stm.call(outer -> {
+            outer.set(a, 5L);
+            // the nested call sees the buffered write
+            return stm.call(inner -> inner.get(a));
+        });
+
+        assertEquals(5L, result);
+        assertEquals(5L, a.get());
+    }
+
+    @Test
+    void testWritesOutsideTransactionsAreDetected() {
+        Stm stm = Stm.create();
+        AtomicContainer<Long> a = AtomicContainer.create(1L);
+        AtomicContainer<Long> b = AtomicContainer.create(0L);
+
+        stm.run(tx -> {
+            long value = tx.get(a);
+            // a relaxed write by someone else after the read
+            // has to invalidate the transaction
+            if (tx.attempt() == 0)
+                a.setRelease(10L);
+            tx.set(b, value);
+        });
+
+        assertEquals(10L, b.get());
+        assertTrue(stm.conflictCount() > 0);
+    }
+
+}
@@ -0,0 +1,247 @@
+package coldsrc.coldlib.util.functional;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the thread safe callbacks: {@link ConcurrentCallback},
+ * {@link AsyncCallback} and {@link CoalescingCallback}.
+ */
+public class CallbackTest {
+
+    // wait until the condition holds or fail
+    static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline)
+                fail("Condition not met in time");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void testConcurrentCallsAndRegistrations() throws Exception {
+        ConcurrentCallback<Integer> callback = Callback.concurrent();
+        AtomicLong sum = new AtomicLong();
+        callback.then((Function<Integer, HandlerResult>) v -> {
+            sum.addAndGet(v);
+            return HandlerResult.KEEP;
+        });
+
+        // register and remove handlers while calling
+        Thread registrar = new Thread(() -> {
+            for (int i = 0; i < 1_000; i++) {
+                Function<Integer, HandlerResult> handler = v -> HandlerResult.KEEP;
+                callback.then(handler);
+                assertTrue(callback.remove(handler));
+            }
+        });
+
+        Thread[] callers = new Thread[4];
+        for (int t = 0; t < callers.length; t++) {
+            callers[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++)
+                    callback.call(1);
+            });
+        }
+
+        registrar.start();
+        for (Thread thread : callers)
+            thread.start();
+        for (Thread thread : callers)
+            thread.join();
+        registrar.join();
+
+        assertEquals(40_000, sum.get());
+        assertEquals(1, callback.handlerCount());
+    }
+
+    @Test
+    void testRemovedHandlersAndFutures() {
+        ConcurrentCallback<String> callback = Callback.concurrent();
+        AtomicInteger once = new AtomicInteger();
+        callback.then((Function<String, HandlerResult>) v -> {
+            once.incrementAndGet();
+            return HandlerResult.REMOVE;
+        });
+
+        CompletableFuture<String> future = callback.await();
+        callback.call("a");
+        callback.call("b");
+
+        assertEquals(1, once.get());
+        assertEquals(0, callback.handlerCount());
+        assertEquals("a", future.join());
+    }
+
+    @Test
+    void testAsyncPreservesOrder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            AsyncCallback<Integer> callback = Callback.async(executor);
+            List<Integer> received = new ArrayList<>();
+            AtomicInteger concurrent = new AtomicInteger();
+            AtomicBoolean overlapped = new AtomicBoolean();
+            callback.then((Function<Integer, HandlerResult>) v -> {
+                if (concurrent.incrementAndGet() > 1)
+                    overlapped.set(true);
+                received.add(v);
+                concurrent.decrementAndGet();
+                return HandlerResult.KEEP;
+            });
+
+            for (int i = 0; i < 10_000; i++)
+                callback.call(i);
+            awaitTrue(callback::isIdle);
+
+            assertFalse(overlapped.get());
+            assertEquals(10_000, received.size());
+            for (int i = 0; i < 10_000; i++)
+                assertEquals(i, received.get(i));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testAsyncConcurrentCallers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            AsyncCallback<Integer> callback = Callback.async(executor);
+            AtomicLong count = new AtomicLong();
+            callback.then((Function<Integer, HandlerResult>) v -> {
+                count.incrementAndGet();
+                return HandlerResult.KEEP;
+            });
+
+            Thread[] callers = new Thread[4];
+            for (int t = 0; t < callers.length; t++) {
+                callers[t] = new Thread(() -> {
+                    for (int i = 0; i < 5_000; i++)
+                        callback.call(i);
+                });
+                callers[t].start();
+            }
+
+            for (Thread thread : callers)
+                thread.join();
+            awaitTrue(() -> callback.isIdle() && count.get() == 20_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testAsyncHandlerErrorsAreReported() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AtomicInteger errors = new AtomicInteger();
+            AsyncCallback<Integer> callback = Callback.async(executor, t -> {
+                errors.incrementAndGet();
+                // a throwing error handler must not kill the drain
+                throw new IllegalStateException("handler");
+            });
+
+            AtomicInteger delivered = new AtomicInteger();
+            callback.then((Function<Integer, HandlerResult>) v -> {
+                delivered.incrementAndGet();
+                if (v % 2 == 0)
+                    throw new IllegalArgumentException("even");
+                return HandlerResult.KEEP;
+            });
+
+            for (int i = 0; i < 1_000; i++)
+                callback.call(i);
+            awaitTrue(callback::isIdle);
+
+            assertEquals(1_000, delivered.get());
+            assertEquals(500, errors.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCoalescingManualFlush() {
+        CoalescingCallback<Integer> callback = Callback.coalescing(Integer::sum);
+        List<Integer> received = new ArrayList<>();
+        callback.then((Function<Integer, HandlerResult>) v -> {
+            received.add(v);
+            return HandlerResult.KEEP;
+        });
+
+        for (int i = 1; i <= 100; i++)
+            callback.call(i);
+        assertTrue(callback.hasPending());
+        assertTrue(callback.flush());
+        assertFalse(callback.flush());
+
+        assertEquals(List.of(5050), received);
+        assertEquals(100, callback.callCount());
+        assertEquals(1, callback.dispatchCount());
+    }
+
+    @Test
+    void testCoalescingWindowDispatchesLatest() throws Exception {
+        CoalescingCallback<Integer> callback = Callback.coalescing(Duration.ofMillis(20));
+        AtomicInteger last = new AtomicInteger(-1);
+        callback.then((Function<Integer, HandlerResult>) v -> {
+            last.set(v);
+            return HandlerResult.KEEP;
+        });
+
+        for (int i = 0; i < 1_000; i++)
+            callback.call(i);
+        awaitTrue(() -> last.get() == 999);
+        assertFalse(callback.hasPending());
+        assertTrue(callback.dispatchCount() <= 2);
+    }
+
+    @Test
+    void testCoalescingRejectedFlushStaysPending() throws Exception {
+        AtomicBoolean reject = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CoalescingCallback<Integer> callback = Callback.coalescing(Duration.ofMillis(5), (a, b) -> b, task -> {
+                if (reject.get())
+                    throw new RejectedExecutionException();
+                executor.execute(task);
+            });
+
+            AtomicReference<Thread> handlerThread = new AtomicReference<>();
+            callback.then((Function<Integer, HandlerResult>) v -> {
+                handlerThread.set(Thread.currentThread());
+                return HandlerResult.KEEP;
+            });
+
+            callback.call(1);
+            Thread.sleep(30);
+            // never flushed inline on the scheduler
+            assertTrue(callback.hasPending());
+            assertNull(handlerThread.get());
+
+            reject.set(false);
+            callback.call(2);
+            awaitTrue(() -> !callback.hasPending() && handlerThread.get() != null);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package coldsrc.coldlib.util.instrument;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the buckets and snapshots of {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    void testBucketBounds() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            int bucket = LatencyHistogram.bucket(value);
+            assertTrue(bucket >= 0 && bucket < LatencyHistogram.BUCKET_COUNT);
+            assertTrue(LatencyHistogram.lowestValue(bucket) <= value);
+            assertTrue(LatencyHistogram.highestValue(bucket) >= value);
+        }
+
+        // the buckets are contiguous
+        for (int bucket = 0; bucket + 1 < LatencyHistogram.BUCKET_COUNT; bucket++)
+            assertEquals(LatencyHistogram.highestValue(bucket) + 1, LatencyHistogram.lowestValue(bucket + 1));
+        assertEquals(0, LatencyHistogram.bucket(-5));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValue(LatencyHistogram.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    void testSnapshotStatistics() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1_000; i++)
+            histogram.record(i);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1_000, snapshot.count());
+        assertEquals(500_500, snapshot.sum());
+        assertEquals(1_000, snapshot.max());
+        assertEquals(500.5, snapshot.mean());
+        assertEquals(1, snapshot.min());
+        assertEquals(1_000, snapshot.percentile(100));
+
+        // within the relative error of a bucket
+        long median = snapshot.percentile(50);
+        assertTrue(median >= 500 && median <= 500 + 500 / (1 << LatencyHistogram.SUB_BITS), "median " + median);
+        assertThrows(IllegalArgumentException.class, () -> snapshot.percentile(101));
+
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().count());
+        assertEquals(0, histogram.snapshot().percentile(99));
+    }
+
+    @Test
+    void testConcurrentRecords() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final long value = (t + 1) * 1_000L;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++)
+                    histogram.record(value);
+            });
+            threads[t].start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(400_000, snapshot.count());
+        assertEquals(50_000L * 1_000 * 36, snapshot.sum());
+        assertEquals(8_000, snapshot.max());
+        for (int t = 1; t <= 8; t++)
+            assertTrue(snapshot.count(LatencyHistogram.bucket(t * 1_000L)) >= 50_000);
+    }
+
+    @Test
+    void testSnapshotIsImmutable() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        int bucket = LatencyHistogram.bucket(10);
+
+        snapshot.buckets()[bucket] = 100;
+        histogram.record(10);
+        assertEquals(1, snapshot.count(bucket));
+        assertEquals(snapshot, new LatencyHistogram.Snapshot(1, 10, 10, snapshot.buckets()));
+    }
+
+}
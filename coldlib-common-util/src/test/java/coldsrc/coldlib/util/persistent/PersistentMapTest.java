@@ -0,0 +1,143 @@
+package coldsrc.coldlib.util.persistent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link PersistentMap} and {@link PersistentSet}
+ * against the {@link java.util} collections, including
+ * keys with colliding hash codes.
+ */
+public class PersistentMapTest {
+
+    /**
+     * A key with a controllable hash code.
+     */
+    record Key(int id, int hash) {
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && id == other.id;
+        }
+
+    }
+
+    @Test
+    void testWithAndWithout() {
+        PersistentMap<String, Integer> map = PersistentMap.empty();
+        map = map.with("a", 1).with("b", 2).with("a", 3);
+        assertEquals(2, map.size());
+        assertEquals(3, map.get("a"));
+        assertEquals(Map.of("a", 3, "b", 2), map);
+
+        PersistentMap<String, Integer> removed = map.without("a");
+        assertEquals(Map.of("b", 2), removed);
+        assertSame(removed, removed.without("missing"));
+        assertEquals(Map.of("a", 3, "b", 2), map);
+    }
+
+    @Test
+    void testNullValues() {
+        PersistentMap<String, Integer> map = PersistentMap.<String, Integer>empty().with("a", null);
+        assertTrue(map.containsKey("a"));
+        assertNull(map.get("a"));
+        assertEquals(5, map.getOrDefault("b", 5));
+        assertThrows(NullPointerException.class, () -> map.with(null, 1));
+    }
+
+    @Test
+    void testCollisions() {
+        PersistentMap<Key, Integer> map = PersistentMap.empty();
+        for (int i = 0; i < 100; i++)
+            map = map.with(new Key(i, i % 3), i);
+        assertEquals(100, map.size());
+        for (int i = 0; i < 100; i++)
+            assertEquals(i, map.get(new Key(i, i % 3)));
+
+        for (int i = 0; i < 100; i += 2)
+            map = map.without(new Key(i, i % 3));
+        assertEquals(50, map.size());
+        for (int i = 0; i < 100; i++)
+            assertEquals(i % 2 == 0 ? null : i, map.get(new Key(i, i % 3)));
+    }
+
+    @Test
+    void testRandomOperationsMatchHashMap() {
+        Random random = new Random(42);
+        PersistentMap<Key, Integer> map = PersistentMap.empty();
+        Map<Key, Integer> model = new HashMap<>();
+        for (int op = 0; op < 200_000; op++) {
+            // few distinct hashes force collisions and deep tries
+            int id = random.nextInt(5_000);
+            Key key = new Key(id, (id & 1) == 0 ? id >>> 3 : id * 0x9E3779B9);
+            if (random.nextInt(3) != 0) {
+                map = map.with(key, op);
+                model.put(key, op);
+            } else {
+                map = map.without(key);
+                model.remove(key);
+            }
+
+            if (op % 10_000 == 0)
+                assertEquals(model, map);
+        }
+
+        assertEquals(model.size(), map.size());
+        assertEquals(model, map);
+        assertEquals(map, model);
+
+        Map<Key, Integer> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertEquals(model, iterated);
+    }
+
+    @Test
+    void testOldVersionsAreUnchanged() {
+        PersistentMap<Integer, Integer> base = PersistentMap.empty();
+        for (int i = 0; i < 1_000; i++)
+            base = base.with(i, i);
+
+        PersistentMap<Integer, Integer> changed = base.with(1, -1).without(2).withComputed(3, (k, v) -> v + 100);
+        assertEquals(1_000, base.size());
+        assertEquals(1, base.get(1));
+        assertEquals(2, base.get(2));
+        assertEquals(-1, changed.get(1));
+        assertFalse(changed.containsKey(2));
+        assertEquals(103, changed.get(3));
+    }
+
+    @Test
+    void testSet() {
+        Random random = new Random(7);
+        PersistentSet<Integer> set = PersistentSet.empty();
+        Set<Integer> model = new HashSet<>();
+        for (int op = 0; op < 50_000; op++) {
+            int element = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                set = set.with(element);
+                model.add(element);
+            } else {
+                set = set.without(element);
+                model.remove(element);
+            }
+        }
+
+        assertEquals(model, set);
+        assertEquals(set, model);
+        assertEquals(Set.of(1, 2, 3), PersistentSet.of(1, 2, 3, 2));
+        assertThrows(UnsupportedOperationException.class, () -> PersistentSet.of(1).add(2));
+    }
+
+}
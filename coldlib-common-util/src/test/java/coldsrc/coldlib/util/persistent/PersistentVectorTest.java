@@ -0,0 +1,102 @@
+package coldsrc.coldlib.util.persistent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link PersistentVector} against an {@link ArrayList}
+ * across the boundaries of the tail and trie levels.
+ */
+public class PersistentVectorTest {
+
+    // past the tail, the first level and the second level
+    static final int SIZE = 32 + 32 * 32 + 32 * 32 * 32 + 100;
+
+    @Test
+    void testAppendAndGet() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int i = 0; i < SIZE; i++) {
+            vector = vector.append(i);
+            assertEquals(i + 1, vector.size());
+            assertEquals(i, vector.get(i));
+        }
+
+        for (int i = 0; i < SIZE; i++)
+            assertEquals(i, vector.get(i));
+        final PersistentVector<Integer> full = vector;
+        assertThrows(IndexOutOfBoundsException.class, () -> full.get(SIZE));
+        assertThrows(IndexOutOfBoundsException.class, () -> full.get(-1));
+    }
+
+    @Test
+    void testPopToEmpty() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int i = 0; i < SIZE; i++)
+            vector = vector.append(i);
+
+        for (int i = SIZE - 1; i >= 0; i--) {
+            vector = vector.pop();
+            assertEquals(i, vector.size());
+            if (i > 0)
+                assertEquals(i - 1, vector.get(i - 1));
+        }
+
+        assertTrue(vector.isEmpty());
+        assertThrows(IllegalStateException.class, vector::pop);
+    }
+
+    @Test
+    void testOldVersionsAreUnchanged() {
+        PersistentVector<Integer> base = PersistentVector.empty();
+        for (int i = 0; i < 2_000; i++)
+            base = base.append(i);
+
+        PersistentVector<Integer> changed = base.with(1_000, -1).append(2_000).pop().pop();
+        assertEquals(1_000, base.get(1_000));
+        assertEquals(2_000, base.size());
+        assertEquals(-1, changed.get(1_000));
+        assertEquals(1_999, changed.size());
+    }
+
+    @Test
+    void testRandomOperationsMatchList() {
+        Random random = new Random(42);
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<Integer> model = new ArrayList<>();
+        for (int op = 0; op < 200_000; op++) {
+            int r = random.nextInt(10);
+            if (r < 6 || model.isEmpty()) {
+                vector = vector.append(op);
+                model.add(op);
+            } else if (r < 8) {
+                int index = random.nextInt(model.size());
+                vector = vector.with(index, op);
+                model.set(index, op);
+            } else {
+                vector = vector.pop();
+                model.remove(model.size() - 1);
+            }
+
+            if (op % 10_000 == 0)
+                assertEquals(model, vector);
+        }
+
+        assertEquals(model, vector);
+        assertEquals(model, new ArrayList<>(vector));
+    }
+
+    @Test
+    void testFactoriesAndMutators() {
+        PersistentVector<String> vector = PersistentVector.of("a", "b", "c");
+        assertEquals(List.of("a", "b", "c"), vector);
+        assertEquals(vector, PersistentVector.from(List.of("a", "b", "c")));
+        assertEquals(List.of("a", "b", "c", "d", "e"), vector.appendAll(List.of("d", "e")));
+        assertThrows(UnsupportedOperationException.class, () -> vector.add("d"));
+    }
+
+}
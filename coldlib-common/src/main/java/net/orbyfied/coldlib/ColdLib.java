@@ -4,6 +4,7 @@ import coldsrc.coldlib.util.Container;
 
 import java.lang.reflect.Constructor;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 /**
  * The library instance.
@@ -41,6 +42,16 @@ public class ColdLib {
         return provider;
     }
 
+    /**
+     * Get the executor for blocking and I/O bound
+     * tasks owned by the provider.
+     * @see ColdLibProvider#asyncExecutor()
+     * @return The executor.
+     */
+    public Executor asyncExecutor() {
+        return provider.asyncExecutor();
+    }
+
     /*
 
         Services
@@ -1,7 +1,11 @@
 package net.orbyfied.coldlib;
 
+import coldsrc.coldlib.util.AsyncExecutors;
 import coldsrc.coldlib.util.Container;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
 /**
  * Responsible for loading, bootstrapping
  * and providing ColdLib to the VM.
@@ -54,6 +58,9 @@ public abstract class ColdLibProvider {
         // instantiate the library
         this.lib = new ColdLib(this);
 
+        // run the async helpers on our executor
+        AsyncExecutors.installSharedExecutor(asyncExecutorView);
+
         // load the provider
         load();
     }
@@ -71,6 +78,31 @@ public abstract class ColdLibProvider {
         return lib;
     }
 
+    /**
+     * The executor for blocking and I/O bound tasks,
+     * running each task on a virtual thread if supported.
+     * Owned by this provider and shut down when unloaded.
+     */
+    private final ExecutorService asyncExecutor =
+            AsyncExecutors.newVirtualThreadExecutor("coldlib-provider");
+
+    /**
+     * The view of the async executor handed out, so
+     * it can not be shut down by its users. Installed
+     * as the {@link AsyncExecutors#sharedExecutor()}
+     * while loaded.
+     */
+    private final Executor asyncExecutorView = asyncExecutor::execute;
+
+    /**
+     * Get the executor for blocking and I/O bound tasks,
+     * which should be used instead of creating thread pools.
+     * @return The executor.
+     */
+    public Executor asyncExecutor() {
+        return asyncExecutorView;
+    }
+
     /**
      * Loads the library provider.
      */
@@ -84,6 +116,10 @@ public abstract class ColdLibProvider {
     /**
      * Unloads the library provider.
      */
-    protected void unload() { }
+    protected void unload() {
+        // stop accepting async tasks
+        AsyncExecutors.uninstallSharedExecutor(asyncExecutorView);
+        asyncExecutor.shutdown();
+    }
 
 }